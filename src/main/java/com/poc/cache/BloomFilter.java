@@ -0,0 +1,116 @@
+package com.poc.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free in-process Bloom filter whose bit layout matches a Redis bitmap
+ * (bit 0 is the most significant bit of byte 0), so it can be merged from GET of a SETBIT key.
+ */
+public class BloomFilter {
+
+    private final long bitSize;
+    private final int hashFunctions;
+    private final AtomicLongArray words;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        // Round up to whole bytes so the Redis bitmap and the local copy have the same length
+        this.bitSize = ((m + 7) / 8) * 8;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+        this.words = new AtomicLongArray((int) ((bitSize + 63) / 64));
+    }
+
+    public long[] offsets(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long h1 = mix(fnv1a(bytes));
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        long[] offsets = new long[hashFunctions];
+        for (int i = 0; i < hashFunctions; i++) {
+            offsets[i] = Math.floorMod(h1 + i * h2, bitSize);
+        }
+        return offsets;
+    }
+
+    public void add(String key) {
+        for (long offset : offsets(key)) {
+            setBit(offset);
+        }
+    }
+
+    public boolean mightContain(String key) {
+        for (long offset : offsets(key)) {
+            if ((words.get((int) (offset >>> 6)) & (1L << (offset & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void merge(byte[] redisBitmap) {
+        int length = (int) Math.min(redisBitmap.length, bitSize / 8);
+        for (int i = 0; i < length; i++) {
+            int b = redisBitmap[i] & 0xFF;
+            if (b == 0) {
+                continue;
+            }
+            for (int bit = 0; bit < 8; bit++) {
+                if ((b & (0x80 >>> bit)) != 0) {
+                    setBit((long) i * 8 + bit);
+                }
+            }
+        }
+    }
+
+    public double estimatedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) set / bitSize, hashFunctions);
+    }
+
+    public long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private void setBit(long offset) {
+        int index = (int) (offset >>> 6);
+        long mask = 1L << (offset & 63);
+        long current;
+        do {
+            current = words.get(index);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(index, current, current | mask));
+    }
+
+    private static long fnv1a(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,49 @@
+package com.poc.cache;
+
+import com.poc.config.ServerlessCacheProperties;
+import com.poc.service.ServerlessCacheService;
+import com.poc.service.ServerlessNearCache;
+import org.springframework.cache.support.AbstractCacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+public class ServerlessCacheManager extends AbstractCacheManager {
+
+    private final ServerlessCacheService cacheService;
+    private final ServerlessNearCache nearCache;
+    private final ServerlessCacheProperties properties;
+
+    public ServerlessCacheManager(ServerlessCacheService cacheService, ServerlessNearCache nearCache,
+                                  ServerlessCacheProperties properties) {
+        this.cacheService = cacheService;
+        this.nearCache = nearCache;
+        this.properties = properties;
+    }
+
+    @Override
+    protected Collection<? extends org.springframework.cache.Cache> loadCaches() {
+        return properties.getCaches().keySet().stream()
+                .map(this::createCache)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected org.springframework.cache.Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    private ServerlessTieredCache createCache(String name) {
+        ServerlessCacheProperties.CacheSpec spec = properties.getCaches()
+                .getOrDefault(name, new ServerlessCacheProperties.CacheSpec());
+        Duration ttl = spec.getTtl() != null ? spec.getTtl() : properties.getDefaultTtl();
+        if (nearCache.isEnabled() && nearCache.tracks(ServerlessTieredCache.keyPrefix(name))) {
+            // Região L1 por cache: um cache muito lido não expulsa as entradas dos outros
+            long l1MaxSize = spec.getL1MaxSize() != null ? spec.getL1MaxSize() : properties.getDefaultL1MaxSize();
+            Duration l1Ttl = spec.getL1Ttl() != null ? spec.getL1Ttl() : properties.getDefaultL1Ttl();
+            nearCache.registerRegion(name, ServerlessTieredCache.keyPrefix(name), l1MaxSize, l1Ttl);
+        }
+        return new ServerlessTieredCache(name, cacheService, ttl);
+    }
+}
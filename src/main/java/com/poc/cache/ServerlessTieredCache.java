@@ -0,0 +1,81 @@
+package com.poc.cache;
+
+import com.poc.service.ServerlessCacheService;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} over {@link ServerlessCacheService}. The in-process
+ * tier is the service's near cache: reads go through its marker-guarded load, so an invalidation
+ * arriving mid-read never leaves a stale entry, and keys are only held locally while client
+ * tracking covers the {@code cache:} prefix.
+ */
+public class ServerlessTieredCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final String keyPrefix;
+    private final ServerlessCacheService cacheService;
+    private final Duration ttl;
+
+    public ServerlessTieredCache(String name, ServerlessCacheService cacheService, Duration ttl) {
+        super(true);
+        this.name = name;
+        this.keyPrefix = keyPrefix(name);
+        this.cacheService = cacheService;
+        this.ttl = ttl;
+    }
+
+    public static String keyPrefix(String name) {
+        return "cache:" + name + "::";
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return cacheService;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return cacheService.get(redisKey(key), Object.class).orElse(null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // getOrLoad gives @Cacheable(sync = true) single-flight, lease and early refresh for free
+        Object stored = cacheService.getOrLoad(redisKey(key), Object.class, ttl, () -> {
+            try {
+                return toStoreValue(valueLoader.call());
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        });
+        return (T) fromStoreValue(stored);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cacheService.put(redisKey(key), toStoreValue(value), ttl);
+    }
+
+    @Override
+    public void evict(Object key) {
+        cacheService.delete(redisKey(key));
+    }
+
+    @Override
+    public void clear() {
+        cacheService.deleteByPrefix(keyPrefix);
+    }
+
+    private String redisKey(Object key) {
+        return keyPrefix + key;
+    }
+}
@@ -0,0 +1,40 @@
+package com.poc.config;
+
+import com.poc.cache.ServerlessCacheManager;
+import com.poc.cache.ServerlessTieredCache;
+import com.poc.service.ServerlessCacheService;
+import com.poc.service.ServerlessNearCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheManagerConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheManagerConfig.class);
+
+    @Bean
+    @ConfigurationProperties(prefix = "cache.manager")
+    public ServerlessCacheProperties serverlessCacheProperties() {
+        return new ServerlessCacheProperties();
+    }
+
+    @Bean
+    public CacheManager cacheManager(ServerlessCacheService cacheService,
+                                     ServerlessNearCache nearCache,
+                                     ServerlessCacheProperties serverlessCacheProperties) {
+        boolean l1 = nearCache.isEnabled() && nearCache.tracks(ServerlessTieredCache.keyPrefix(""));
+        if (!l1 && serverlessCacheProperties.isRequireL1()) {
+            throw new IllegalStateException("Spring caches have no in-process L1: enable cache.near and include \"cache:\" "
+                    + "in cache.near.tracking-prefixes, or set cache.manager.require-l1=false to run Redis-only");
+        }
+        log.info("Configuring Spring CacheManager over Redis Serverless (L1 regions: {}, caches: {})",
+                l1, serverlessCacheProperties.getCaches().keySet());
+        return new ServerlessCacheManager(cacheService, nearCache, serverlessCacheProperties);
+    }
+}
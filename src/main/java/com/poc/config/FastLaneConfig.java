@@ -0,0 +1,97 @@
+package com.poc.config;
+
+import io.lettuce.core.event.command.CommandListener;
+import io.lettuce.core.event.command.CommandStartedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+
+import java.util.Arrays;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "cache.fast-lane.enabled", havingValue = "true", matchIfMissing = true)
+public class FastLaneConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FastLaneConfig.class);
+
+    @Value("${cache.fast-lane.paths:/actuator/health,/actuator/health/**,/health-check,/api/ping,/api/container}")
+    private String[] paths;
+
+    @Bean
+    public FilterRegistrationBean<FastLaneFilter> fastLaneFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<FastLaneFilter> registration =
+                new FilterRegistrationBean<>(new FastLaneFilter(paths, meterRegistry));
+        // Antes do SessionRepositoryFilter, senão a sessão já teria sido resolvida
+        registration.setOrder(SessionRepositoryFilter.DEFAULT_ORDER - 1);
+        log.info("Fast lane enabled for {}", Arrays.toString(paths));
+        return registration;
+    }
+
+    // Probes não passam pela cadeia do Spring Security (nem pelos header writers)
+    @Bean
+    public WebSecurityCustomizer fastLaneSecurityBypass() {
+        return web -> web.ignoring().requestMatchers(Arrays.stream(paths)
+                .map(path -> antMatcher(path))
+                .toArray(RequestMatcher[]::new));
+    }
+
+    // Único registro do contador: nasce em zero e só o guard de comandos abaixo incrementa
+    @Bean
+    public Counter fastLaneRedisCommandCounter(MeterRegistry meterRegistry) {
+        return Counter.builder("http.fastlane.redis.commands")
+                .description("Redis commands issued while serving a fast lane request (expected 0)")
+                .register(meterRegistry);
+    }
+
+    // Prova em métrica: o contador deve ficar em zero. Registrado logo após a criação do RedisClient,
+    // antes de qualquer conexão, porque o Lettuce só instala listeners em conexões novas
+    @Bean
+    public static BeanPostProcessor fastLaneRedisCommandGuard(
+            @Qualifier("fastLaneRedisCommandCounter") ObjectProvider<Counter> fastLaneCommands) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof LettuceConnectionFactory lettuceFactory && lettuceFactory.getNativeClient() != null) {
+                    lettuceFactory.getNativeClient().addListener(new FastLaneCommandListener(fastLaneCommands));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static final class FastLaneCommandListener implements CommandListener {
+
+        // Resolvido sob demanda: um BeanPostProcessor não pode antecipar o MeterRegistry
+        private final ObjectProvider<Counter> fastLaneCommands;
+
+        private FastLaneCommandListener(ObjectProvider<Counter> fastLaneCommands) {
+            this.fastLaneCommands = fastLaneCommands;
+        }
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            if (!FastLaneFilter.isInFastLane()) {
+                return;
+            }
+            fastLaneCommands.getObject().increment();
+            log.warn("Redis command {} issued from a fast lane request", event.getCommand().getType());
+        }
+    }
+}
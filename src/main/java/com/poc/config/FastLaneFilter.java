@@ -0,0 +1,94 @@
+package com.poc.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs ahead of Spring Session for probe paths: marks SessionRepositoryFilter as already applied
+ * so no session is ever resolved from Redis, and forbids creating one downstream.
+ */
+public class FastLaneFilter extends OncePerRequestFilter {
+
+    private static final String SESSION_FILTERED_ATTRIBUTE =
+            SessionRepositoryFilter.class.getName() + OncePerRequestFilter.ALREADY_FILTERED_SUFFIX;
+    private static final ThreadLocal<Boolean> IN_FAST_LANE = new ThreadLocal<>();
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final String[] paths;
+    private final Counter[] requestCounters;
+
+    public FastLaneFilter(String[] paths, MeterRegistry meterRegistry) {
+        this.paths = paths;
+        this.requestCounters = new Counter[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            requestCounters[i] = Counter.builder("http.fastlane.requests")
+                    .description("Requests served without session or security processing")
+                    .tag("path", paths[i])
+                    .register(meterRegistry);
+        }
+    }
+
+    // Usado pelo guard de comandos Redis: qualquer comando neste thread durante o fast lane é um bug
+    public static boolean isInFastLane() {
+        return IN_FAST_LANE.get() != null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return matchingPath(request) < 0;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        requestCounters[matchingPath(request)].increment();
+        request.setAttribute(SESSION_FILTERED_ATTRIBUTE, Boolean.TRUE);
+        IN_FAST_LANE.set(Boolean.TRUE);
+        try {
+            filterChain.doFilter(new SessionlessRequest(request), response);
+        } finally {
+            IN_FAST_LANE.remove();
+        }
+    }
+
+    private int matchingPath(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (int i = 0; i < paths.length; i++) {
+            if (pathMatcher.match(paths[i], path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class SessionlessRequest extends HttpServletRequestWrapper {
+
+        private SessionlessRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public HttpSession getSession(boolean create) {
+            if (create) {
+                throw new IllegalStateException("Fast lane path " + getRequestURI() + " must not create a session");
+            }
+            return null;
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.poc.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Named Cache-Control policies applied explicitly per endpoint. Anything that does not pick one
+ * keeps Spring Security's no-store default.
+ */
+@Component
+public class HttpCachePolicy {
+
+    // ETags são por instância: sem isso duas tasks ECS poderiam gerar a mesma versão para corpos diferentes
+    private final String instanceTag = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+    private final Duration statusSharedMaxAge;
+
+    public HttpCachePolicy(@Value("${cache.http.status.shared-max-age:5s}") Duration statusSharedMaxAge) {
+        this.statusSharedMaxAge = statusSharedMaxAge;
+    }
+
+    // Navegador sempre revalida; CloudFront pode absorver repetições por alguns segundos
+    public CacheControl sharedStatus() {
+        return CacheControl.maxAge(Duration.ZERO).sMaxAge(statusSharedMaxAge).cachePublic();
+    }
+
+    // Health não deve ser servido pelo CDN, mas aceita revalidação barata com 304
+    public CacheControl revalidate() {
+        return CacheControl.noCache();
+    }
+
+    public CacheControl privateRevalidate() {
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    public CacheControl noStore() {
+        return CacheControl.noStore().mustRevalidate();
+    }
+
+    // Equivalente explícito dos headers anti-cache que o TestController montava à mão
+    public HttpHeaders noStoreHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(noStore());
+        headers.setPragma("no-cache");
+        headers.setExpires(0);
+        return headers;
+    }
+
+    public String strongEtag(String scope, long version) {
+        return "\"" + scope + "-" + instanceTag + "-" + Long.toHexString(version) + "\"";
+    }
+
+    public String weakEtag(String scope, long version) {
+        return "W/" + strongEtag(scope, version);
+    }
+}
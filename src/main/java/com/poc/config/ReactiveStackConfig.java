@@ -0,0 +1,97 @@
+package com.poc.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.header.ReferrerPolicyServerHttpHeadersWriter;
+import org.springframework.security.web.server.header.XFrameOptionsServerHttpHeadersWriter;
+import org.springframework.session.data.redis.config.annotation.web.server.EnableRedisWebSession;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.session.CookieWebSessionIdResolver;
+import org.springframework.web.server.session.WebSessionIdResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * WebFlux variant of the servlet stack ("reactive" profile): Redis-backed WebSession with the same
+ * namespace, timeout and cookie as the servlet tasks, and the same permissive security headers.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+@EnableRedisWebSession(maxInactiveIntervalInSeconds = 1800, redisNamespace = "spring:session")
+public class ReactiveStackConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveStackConfig.class);
+
+    public ReactiveStackConfig(@Value("${cache.session.repository:standard}") String sessionRepository) {
+        // O repositório delta só existe no stack servlet; aqui as sessões seguiriam pelo formato padrão sem aviso
+        if ("delta".equalsIgnoreCase(sessionRepository)) {
+            throw new IllegalStateException("cache.session.repository=delta is not supported on the reactive stack; "
+                    + "use cache.session.repository=standard with the reactive profile");
+        }
+    }
+
+    // Com spring-boot-starter-web no classpath o Boot serviria o WebFlux em Tomcat (pool de 200 threads);
+    // a porta e server.netty.* continuam aplicados pelos customizers do Boot
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public WebSessionIdResolver webSessionIdResolver() {
+        log.info("Serving requests on the reactive (WebFlux) stack");
+        Base64CookieWebSessionIdResolver resolver = new Base64CookieWebSessionIdResolver();
+        resolver.setCookieName("JSESSIONID");
+        // Mesmos atributos do DefaultCookieSerializer do stack servlet
+        resolver.addCookieInitializer(cookie -> cookie.path("/").httpOnly(true).secure(false).sameSite("Lax"));
+        return resolver;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .authorizeExchange(exchanges -> exchanges.anyExchange().permitAll())
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .headers(headers -> headers
+                        .frameOptions(frame -> frame.mode(XFrameOptionsServerHttpHeadersWriter.Mode.DENY))
+                        .hsts(hsts -> hsts.maxAge(Duration.ofDays(365)).includeSubdomains(true))
+                        .referrerPolicy(referrer -> referrer.policy(
+                                ReferrerPolicyServerHttpHeadersWriter.ReferrerPolicy.STRICT_ORIGIN_WHEN_CROSS_ORIGIN)))
+                .build();
+    }
+
+    // O DefaultCookieSerializer grava o id em Base64; sem isso um cliente não troca de stack atrás do ALB
+    private static final class Base64CookieWebSessionIdResolver extends CookieWebSessionIdResolver {
+
+        @Override
+        public List<String> resolveSessionIds(ServerWebExchange exchange) {
+            List<String> decoded = new ArrayList<>();
+            for (String value : super.resolveSessionIds(exchange)) {
+                try {
+                    decoded.add(new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8));
+                } catch (IllegalArgumentException e) {
+                    // Cookie fora do formato: tratado como sessão inexistente
+                }
+            }
+            return decoded;
+        }
+
+        @Override
+        public void setSessionId(ServerWebExchange exchange, String id) {
+            super.setSessionId(exchange, Base64.getEncoder().encodeToString(id.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+}
@@ -1,5 +1,13 @@
 package com.poc.config;
 
+import com.poc.model.ArchitectureStatus;
+import com.poc.model.ComponentStatus;
+import com.poc.model.SessionInfo;
+import com.poc.serializer.BinaryTypeRegistry;
+import com.poc.serializer.CompactBinaryRedisSerializer;
+import com.poc.serializer.CompressingRedisSerializer;
+import com.poc.session.SessionSizeGuard;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.lettuce.core.ClientOptions;
 import io.lettuce.core.SocketOptions;
 import io.lettuce.core.TimeoutOptions;
@@ -8,26 +16,34 @@ import io.lettuce.core.resource.ClientResources;
 import io.lettuce.core.resource.DefaultClientResources;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
-import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisHttpSession;
-import org.springframework.session.web.http.CookieHttpSessionIdResolver;
-import org.springframework.session.web.http.DefaultCookieSerializer;
-import org.springframework.session.web.http.HttpSessionIdResolver;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 
 @Configuration
-@EnableRedisHttpSession(maxInactiveIntervalInSeconds = 1800, redisNamespace = "spring:session")
 public class RedisServerlessConfig {
 
     private static final Logger log = LoggerFactory.getLogger(RedisServerlessConfig.class);
@@ -41,6 +57,32 @@ public class RedisServerlessConfig {
     @Value("${redis.ssl:false}")
     private boolean useSsl;
 
+    // true faz um PING dentro de synchronized a cada getConnection: round trip extra por operação e
+    // pinning do carrier com virtual threads. O Lettuce já reconecta sozinho e o RedisHealthSampler cobre a detecção
+    @Value("${redis.validate-connection:false}")
+    private boolean validateConnection;
+
+    @Value("${cache.serializer:json}")
+    private String valueSerializer;
+
+    @Value("${cache.session.codec.format:jdk}")
+    private String sessionFormat;
+
+    @Value("${cache.compression.enabled:false}")
+    private boolean compressionEnabled;
+
+    @Value("${cache.compression.threshold:1024}")
+    private int compressionThreshold;
+
+    @Value("${cache.compression.level:1}")
+    private int compressionLevel;
+
+    @Value("${cache.compression.dictionary:}")
+    private String compressionDictionary;
+
+    @Value("${cache.compression.max-decompressed-bytes:${cache.session.codec.max-attribute-bytes:1048576}}")
+    private int maxDecompressedBytes;
+
     @Bean
     public ClientResources clientResources() {
         return DefaultClientResources.builder().build();
@@ -89,23 +131,76 @@ public class RedisServerlessConfig {
         config.setPort(redisPort);
         
         LettuceConnectionFactory factory = new LettuceConnectionFactory(config, clientConfig);
-        factory.setValidateConnection(true);
+        factory.setValidateConnection(validateConnection);
         
         return factory;
     }
 
+    @Bean
+    public BinaryTypeRegistry binaryTypeRegistry() {
+        // Ids são persistidos no Redis: nunca renumerar ou reutilizar
+        return new BinaryTypeRegistry()
+                .register(32, ComponentStatus.class)
+                .register(33, ArchitectureStatus.class)
+                .register(34, SessionInfo.class);
+    }
+
+    @Bean
+    public RedisSerializer<Object> redisValueSerializer(BinaryTypeRegistry binaryTypeRegistry,
+                                                        MeterRegistry meterRegistry) {
+        RedisSerializer<Object> serializer;
+        // "binary" continua lendo valores JSON legados durante a migração
+        if ("binary".equalsIgnoreCase(valueSerializer)) {
+            log.info("Using compact binary Redis value serializer");
+            serializer = new CompactBinaryRedisSerializer(binaryTypeRegistry);
+        } else {
+            serializer = new GenericJackson2JsonRedisSerializer();
+        }
+        return withCompression(serializer, meterRegistry, "cache");
+    }
+
+    @Bean
+    public RedisSerializer<Object> springSessionDefaultRedisSerializer(MeterRegistry meterRegistry) {
+        // Mantém o formato JDK padrão do Spring Session; só atributos grandes passam a ser comprimidos
+        RedisSerializer<Object> jdkSerializer = new JdkSerializationRedisSerializer(getClass().getClassLoader());
+        if (!"compact".equalsIgnoreCase(sessionFormat)) {
+            return withCompression(jdkSerializer, meterRegistry, "session");
+        }
+        // Timestamps, ids e contadores em binário cru; tipos não registrados e valores JDK antigos seguem pelo JDK
+        log.info("Using compact binary session attribute codec");
+        // Maps/listas não passam mais por Smile: um valor aninhado não-JSON voltava como Map. 32/33 seguem
+        // só na leitura (valores já gravados) e ficam reservados para sempre
+        BinaryTypeRegistry sessionTypes = new BinaryTypeRegistry()
+                .registerReadOnly(32, LinkedHashMap.class)
+                .registerReadOnly(33, ArrayList.class);
+        return withCompression(new CompactBinaryRedisSerializer(sessionTypes, jdkSerializer), meterRegistry, "session");
+    }
+
+    // Vale para os dois repositórios: o delta faz offload para blob, o standard e o WebFlux só checam nos controllers
+    @Bean
+    @ConditionalOnProperty(name = "cache.session.codec.size-guard", havingValue = "true")
+    public SessionSizeGuard sessionSizeGuard(
+            MeterRegistry meterRegistry,
+            @Value("${cache.session.namespace:spring:session}") String namespace,
+            @Value("${cache.session.codec.inline-max-bytes:4096}") int inlineMaxBytes,
+            @Value("${cache.session.codec.max-session-bytes:16384}") long maxSessionBytes,
+            @Value("${cache.session.codec.max-attribute-bytes:1048576}") int maxAttributeBytes) {
+        return new SessionSizeGuard(namespace, inlineMaxBytes, maxSessionBytes, maxAttributeBytes, meterRegistry);
+    }
+
     @Bean
     @Primary
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       @Qualifier("redisValueSerializer") RedisSerializer<Object> redisValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         
         // Configuração crítica para Spring Session funcionar
-        template.setDefaultSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setDefaultSerializer(redisValueSerializer);
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(redisValueSerializer);
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setHashValueSerializer(redisValueSerializer);
         
         template.setEnableTransactionSupport(false);
         template.afterPropertiesSet();
@@ -114,16 +209,39 @@ public class RedisServerlessConfig {
     }
 
     @Bean
-    public HttpSessionIdResolver httpSessionIdResolver() {
-        CookieHttpSessionIdResolver resolver = new CookieHttpSessionIdResolver();
-        DefaultCookieSerializer cookieSerializer = new DefaultCookieSerializer();
-        cookieSerializer.setCookieName("JSESSIONID");
-        cookieSerializer.setCookiePath("/");
-        // Remove domain restriction to work with CloudFront
-        cookieSerializer.setUseHttpOnlyCookie(true);
-        cookieSerializer.setUseSecureCookie(false); // CloudFront handles HTTPS
-        cookieSerializer.setSameSite("Lax");
-        resolver.setCookieSerializer(cookieSerializer);
-        return resolver;
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(RedisConnectionFactory connectionFactory,
+                                                                       @Qualifier("redisValueSerializer") RedisSerializer<Object> redisValueSerializer) {
+        // Mesma serialização do RedisTemplate para que valores sejam intercambiáveis
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(redisValueSerializer)
+                .key(new StringRedisSerializer())
+                .value(redisValueSerializer)
+                .hashKey(new StringRedisSerializer())
+                .hashValue(redisValueSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>((ReactiveRedisConnectionFactory) connectionFactory, context);
+    }
+
+    private RedisSerializer<Object> withCompression(RedisSerializer<Object> serializer,
+                                                    MeterRegistry meterRegistry, String name) {
+        // Decoder sempre instalado: desligar a flag não pode deixar ilegíveis os valores já comprimidos
+        if (compressionEnabled) {
+            log.info("Compressing {} values above {} bytes (level {})", name, compressionThreshold, compressionLevel);
+        }
+        return new CompressingRedisSerializer(serializer, compressionEnabled, compressionThreshold, compressionLevel,
+                maxDecompressedBytes, loadCompressionDictionary(), meterRegistry, name);
+    }
+
+    private byte[] loadCompressionDictionary() {
+        if (compressionDictionary == null || compressionDictionary.isBlank()) {
+            return null;
+        }
+        Resource resource = new DefaultResourceLoader().getResource(compressionDictionary);
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            log.warn("Could not load compression dictionary {}, compressing without it", compressionDictionary, e);
+            return null;
+        }
     }
 }
@@ -0,0 +1,46 @@
+package com.poc.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ServerlessCacheProperties {
+
+    // O L1 é o near cache (cache.near.*): cada cache ganha uma região própria, limitada por l1-max-size/l1-ttl
+    private Duration defaultTtl = Duration.ofMinutes(10);
+    private long defaultL1MaxSize = 1000;
+    private Duration defaultL1Ttl = Duration.ofSeconds(60);
+    // Sem L1 (near cache desligado ou sem tracking de "cache:") a aplicação não sobe, a menos que false
+    private boolean requireL1 = true;
+    private Map<String, CacheSpec> caches = new HashMap<>();
+
+    public Duration getDefaultTtl() { return defaultTtl; }
+    public void setDefaultTtl(Duration defaultTtl) { this.defaultTtl = defaultTtl; }
+
+    public long getDefaultL1MaxSize() { return defaultL1MaxSize; }
+    public void setDefaultL1MaxSize(long defaultL1MaxSize) { this.defaultL1MaxSize = defaultL1MaxSize; }
+
+    public Duration getDefaultL1Ttl() { return defaultL1Ttl; }
+    public void setDefaultL1Ttl(Duration defaultL1Ttl) { this.defaultL1Ttl = defaultL1Ttl; }
+
+    public boolean isRequireL1() { return requireL1; }
+    public void setRequireL1(boolean requireL1) { this.requireL1 = requireL1; }
+
+    public Map<String, CacheSpec> getCaches() { return caches; }
+    public void setCaches(Map<String, CacheSpec> caches) { this.caches = caches; }
+
+    public static class CacheSpec {
+        private Duration ttl;
+        private Long l1MaxSize;
+        private Duration l1Ttl;
+
+        public Duration getTtl() { return ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+        public Long getL1MaxSize() { return l1MaxSize; }
+        public void setL1MaxSize(Long l1MaxSize) { this.l1MaxSize = l1MaxSize; }
+
+        public Duration getL1Ttl() { return l1Ttl; }
+        public void setL1Ttl(Duration l1Ttl) { this.l1Ttl = l1Ttl; }
+    }
+}
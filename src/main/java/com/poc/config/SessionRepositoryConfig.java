@@ -0,0 +1,77 @@
+package com.poc.config;
+
+import com.poc.service.RedisServerlessMonitoringService;
+import com.poc.session.DeltaRedisSessionRepository;
+import com.poc.session.SessionExpirySweeper;
+import com.poc.session.SessionLazyLoader;
+import com.poc.session.SessionLocalCache;
+import com.poc.session.SessionSizeGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "cache.session.repository", havingValue = "delta")
+public class SessionRepositoryConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionRepositoryConfig.class);
+
+    // @Primary: o SessionRepositoryFilter passa a usar este no lugar do RedisSessionRepository do @EnableRedisHttpSession
+    @Bean
+    @Primary
+    public DeltaRedisSessionRepository deltaRedisSessionRepository(
+            RedisTemplate<String, Object> redisTemplate,
+            @Qualifier("springSessionDefaultRedisSerializer") RedisSerializer<Object> sessionSerializer,
+            RedisServerlessMonitoringService monitoringService,
+            MeterRegistry meterRegistry,
+            @Value("${cache.session.namespace:spring:session}") String namespace,
+            @Value("${cache.session.max-inactive-interval:30m}") Duration maxInactiveInterval,
+            @Value("${cache.session.touch-granularity:0s}") Duration touchGranularity,
+            @Value("${cache.session.local-cache.enabled:false}") boolean localCacheEnabled,
+            @Value("${cache.session.local-cache.max-size:10000}") long localCacheMaxSize,
+            @Value("${cache.session.local-cache.max-idle:5m}") Duration localCacheMaxIdle,
+            @Value("${cache.session.lazy.enabled:false}") boolean lazyEnabled,
+            @Value("${cache.session.lazy.hot-attributes:}") String[] hotAttributes,
+            ObjectProvider<SessionExpirySweeper> expirySweeperProvider,
+            ObjectProvider<SessionSizeGuard> sizeGuardProvider) {
+        SessionExpirySweeper expirySweeper = expirySweeperProvider.getIfAvailable();
+        log.info("Using delta session repository (namespace: {}, max inactive: {}, touch granularity: {}, local cache: {}, expiry: {}, lazy: {})",
+                namespace, maxInactiveInterval, touchGranularity, localCacheEnabled,
+                expirySweeper != null ? "sweeper" : "ttl", lazyEnabled ? List.of(hotAttributes) : "off");
+        SessionLocalCache localCache = localCacheEnabled
+                ? new SessionLocalCache(localCacheMaxSize, localCacheMaxIdle, meterRegistry)
+                : null;
+        SessionSizeGuard sizeGuard = sizeGuardProvider.getIfAvailable();
+        SessionLazyLoader lazyLoader = lazyEnabled ? new SessionLazyLoader(List.of(hotAttributes), meterRegistry) : null;
+        return new DeltaRedisSessionRepository(redisTemplate, sessionSerializer, monitoringService, meterRegistry,
+                namespace, maxInactiveInterval, touchGranularity, localCache, expirySweeper, sizeGuard, lazyLoader);
+    }
+
+    // Bean próprio para o @PostConstruct/@PreDestroy do sweeper rodarem
+    @Bean
+    @ConditionalOnProperty(name = "cache.session.expiry.strategy", havingValue = "sweeper")
+    public SessionExpirySweeper sessionExpirySweeper(
+            RedisTemplate<String, Object> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${cache.session.namespace:spring:session}") String namespace,
+            @Value("${cache.session.expiry.bucket-size:60s}") Duration bucketSize,
+            @Value("${cache.session.expiry.batch-size:200}") int batchSize,
+            @Value("${cache.session.expiry.period:30s}") Duration period,
+            @Value("${cache.session.expiry.lock-ttl:30s}") Duration lockTtl,
+            @Value("${cache.session.expiry.lookback:1h}") Duration lookback) {
+        return new SessionExpirySweeper(redisTemplate, meterRegistry, namespace, bucketSize, batchSize,
+                period, lockTtl, lookback);
+    }
+}
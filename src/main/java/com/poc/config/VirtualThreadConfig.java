@@ -0,0 +1,95 @@
+package com.poc.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in "virtual-threads" profile: Tomcat requests, MVC async (SSE) and @Async work run on
+ * virtual threads instead of the platform pool, so a request blocked on Lettuce only parks a
+ * virtual thread. Boot 3.1 has no spring.threads.virtual switch, hence the explicit beans.
+ * Pinning (a virtual thread blocking while it holds a monitor, which also blocks its carrier)
+ * is watched at runtime through the JFR jdk.VirtualThreadPinned event; audit results are in
+ * docs/BENCHMARKS.md.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        log.info("Serving Tomcat requests on virtual threads");
+        // server.tomcat.threads.* deixa de limitar a concorrência; o limite passa a ser accept-count/max-connections
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    // Só eventos acima do threshold são emitidos pelo JFR; o contador deve ficar em zero (ver docs/BENCHMARKS.md)
+    @Bean(destroyMethod = "close")
+    public RecordingStream virtualThreadPinnedEvents(
+            MeterRegistry meterRegistry,
+            @Value("${cache.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        Timer pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier (JFR jdk.VirtualThreadPinned)")
+                .register(meterRegistry);
+        RecordingStream stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", event -> {
+            pinned.record(event.getDuration());
+            if (log.isDebugEnabled() && event.getStackTrace() != null) {
+                // Frames fora do JDK: o primeiro é onde bloqueou; o synchronized responsável vem logo abaixo
+                String frames = event.getStackTrace().getFrames().stream()
+                        .map(RecordedFrame::getMethod)
+                        .map(method -> method.getType().getName() + "." + method.getName())
+                        .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk."))
+                        .limit(5)
+                        .collect(Collectors.joining(" < "));
+                log.debug("Virtual thread pinned for {} at {}", event.getDuration(), frames);
+            }
+        });
+        stream.startAsync();
+        return stream;
+    }
+
+    // O SharedConnection do Lettuce conecta dentro de synchronized: abrir no primeiro request prendia o carrier.
+    // Abre as conexões compartilhadas (sync e reativa) aqui, na thread main, antes de aceitar tráfego
+    @Bean
+    public ApplicationRunner sharedRedisConnectionWarmup(RedisConnectionFactory connectionFactory) {
+        return args -> {
+            try {
+                connectionFactory.getConnection().close();
+                if (connectionFactory instanceof ReactiveRedisConnectionFactory reactiveFactory) {
+                    reactiveFactory.getReactiveConnection().close();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not open the shared Redis connections at startup; the first request will", e);
+            }
+        };
+    }
+
+    // Mesmo nome do executor padrão do Boot: MVC async e @Async passam a usar virtual threads
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
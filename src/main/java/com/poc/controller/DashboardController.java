@@ -1,11 +1,17 @@
 package com.poc.controller;
 
+import com.poc.config.HttpCachePolicy;
+import com.poc.service.ArchitectureStatusBroadcaster;
 import com.poc.service.ArchitectureTestService;
 import com.poc.model.ArchitectureStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
@@ -13,11 +19,18 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class DashboardController {
 
     @Autowired
     private ArchitectureTestService testService;
 
+    @Autowired
+    private ArchitectureStatusBroadcaster statusBroadcaster;
+
+    @Autowired
+    private HttpCachePolicy cachePolicy;
+
     @GetMapping("/")
     public String dashboard(Model model, HttpServletRequest request) {
         // Container Info
@@ -35,10 +48,22 @@ public class DashboardController {
         return "dashboard";
     }
 
+    // ETag pela versão do status: If-None-Match igual responde 304 sem serializar o corpo
     @GetMapping("/api/status")
     @ResponseBody
-    public ArchitectureStatus getStatus() {
-        return testService.getArchitectureStatus();
+    public ResponseEntity<ArchitectureStatus> getStatus() {
+        ArchitectureTestService.VersionedStatus current = testService.getVersionedStatus();
+        return ResponseEntity.ok()
+                .eTag(cachePolicy.strongEtag("status", current.version()))
+                .cacheControl(cachePolicy.sharedStatus())
+                .body(current.status());
+    }
+
+    // Stream SSE: snapshot inicial e depois só deltas, compartilhados entre todas as abas abertas
+    @GetMapping(value = "/api/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamStatus() {
+        return statusBroadcaster.subscribe();
     }
 
     @GetMapping("/api/container")
@@ -1,6 +1,7 @@
 package com.poc.controller;
 
 import com.poc.service.ServerlessCacheService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -10,6 +11,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class HealthCheckController {
 
     private final ServerlessCacheService cacheService;
@@ -30,7 +32,8 @@ public class HealthCheckController {
         response.put("version", "1.0.0");
         response.put("redis", Map.of(
             "status", redisHealthy ? "UP" : "DOWN",
-            "type", "serverless"
+            "type", "serverless",
+            "consecutiveFailures", cacheService.healthSnapshot().consecutiveFailures()
         ));
         
         return ResponseEntity.ok(response);
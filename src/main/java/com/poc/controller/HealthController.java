@@ -1,10 +1,13 @@
 package com.poc.controller;
 
+import com.poc.config.HttpCachePolicy;
 import com.poc.service.ArchitectureTestService;
+import com.poc.service.RedisHealthSampler;
 import com.poc.service.ServerlessCacheService;
 import com.poc.model.ArchitectureStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,17 +18,21 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/health")
 public class HealthController {
 
     private static final Logger log = LoggerFactory.getLogger(HealthController.class);
     private final ArchitectureTestService architectureTestService;
     private final ServerlessCacheService cacheService;
+    private final HttpCachePolicy cachePolicy;
 
     public HealthController(ArchitectureTestService architectureTestService, 
-                          ServerlessCacheService cacheService) {
+                          ServerlessCacheService cacheService,
+                          HttpCachePolicy cachePolicy) {
         this.architectureTestService = architectureTestService;
         this.cacheService = cacheService;
+        this.cachePolicy = cachePolicy;
     }
 
     @GetMapping
@@ -40,7 +47,8 @@ public class HealthController {
         response.put("version", "1.0.0");
         response.put("redis", Map.of(
             "status", redisHealthy ? "UP" : "DOWN",
-            "type", "serverless"
+            "type", "serverless",
+            "sample", healthSample()
         ));
         
         return ResponseEntity.ok(response);
@@ -49,14 +57,19 @@ public class HealthController {
     @GetMapping("/detailed")
     public ResponseEntity<ArchitectureStatus> detailedHealth() {
         try {
-            ArchitectureStatus status = architectureTestService.getArchitectureStatus();
+            ArchitectureTestService.VersionedStatus current = architectureTestService.getVersionedStatus();
+            ArchitectureStatus status = current.status();
             
+            // 304 só se aplica ao 200; CDN não guarda health, o cliente revalida sempre
             if ("HEALTHY".equals(status.getOverallStatus())) {
-                return ResponseEntity.ok(status);
+                return ResponseEntity.ok()
+                        .eTag(cachePolicy.strongEtag("status", current.version()))
+                        .cacheControl(cachePolicy.revalidate())
+                        .body(status);
             } else if ("DEGRADED".equals(status.getOverallStatus())) {
-                return ResponseEntity.status(206).body(status); // 206 Partial Content
+                return ResponseEntity.status(206).cacheControl(cachePolicy.noStore()).body(status); // 206 Partial Content
             } else {
-                return ResponseEntity.status(503).body(status); // 503 Service Unavailable
+                return ResponseEntity.status(503).cacheControl(cachePolicy.noStore()).body(status); // 503 Service Unavailable
             }
         } catch (Exception e) {
             log.error("Health check failed", e);
@@ -72,7 +85,18 @@ public class HealthController {
         response.put("status", healthy ? "UP" : "DOWN");
         response.put("timestamp", LocalDateTime.now());
         response.put("type", "redis-serverless");
+        response.put("sample", healthSample());
         
         return ResponseEntity.ok(response);
     }
+
+    private Map<String, Object> healthSample() {
+        RedisHealthSampler.HealthSnapshot snapshot = cacheService.healthSnapshot();
+        Map<String, Object> sample = new HashMap<>();
+        sample.put("sampledAt", snapshot.sampledAt());
+        sample.put("latencyMs", snapshot.latencyMillis());
+        sample.put("lastSuccess", snapshot.lastSuccess());
+        sample.put("consecutiveFailures", snapshot.consecutiveFailures());
+        return sample;
+    }
 }
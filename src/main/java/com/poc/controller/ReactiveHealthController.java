@@ -0,0 +1,106 @@
+package com.poc.controller;
+
+import com.poc.config.HttpCachePolicy;
+import com.poc.model.ArchitectureStatus;
+import com.poc.service.ArchitectureTestService;
+import com.poc.service.RedisHealthSampler;
+import com.poc.service.ServerlessCacheService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * WebFlux counterpart of {@link HealthController} and {@link HealthCheckController}. Every
+ * handler only reads cached state (health sampler snapshot, last architecture status), so they
+ * run directly on the event loop.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveHealthController {
+
+    private final ArchitectureTestService architectureTestService;
+    private final ServerlessCacheService cacheService;
+    private final HttpCachePolicy cachePolicy;
+
+    public ReactiveHealthController(ArchitectureTestService architectureTestService,
+                                    ServerlessCacheService cacheService,
+                                    HttpCachePolicy cachePolicy) {
+        this.architectureTestService = architectureTestService;
+        this.cacheService = cacheService;
+        this.cachePolicy = cachePolicy;
+    }
+
+    @GetMapping("/health")
+    public ResponseEntity<Map<String, Object>> health() {
+        boolean redisHealthy = cacheService.isHealthy();
+        Map<String, Object> response = serviceStatus(redisHealthy);
+        response.put("redis", Map.of(
+                "status", redisHealthy ? "UP" : "DOWN",
+                "type", "serverless",
+                "sample", healthSample()
+        ));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/health-check")
+    public ResponseEntity<Map<String, Object>> healthCheck() {
+        boolean redisHealthy = cacheService.isHealthy();
+        Map<String, Object> response = serviceStatus(redisHealthy);
+        response.put("redis", Map.of(
+                "status", redisHealthy ? "UP" : "DOWN",
+                "type", "serverless",
+                "consecutiveFailures", cacheService.healthSnapshot().consecutiveFailures()
+        ));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/health/detailed")
+    public ResponseEntity<ArchitectureStatus> detailedHealth() {
+        ArchitectureTestService.VersionedStatus current = architectureTestService.getVersionedStatus();
+        ArchitectureStatus status = current.status();
+        if ("HEALTHY".equals(status.getOverallStatus())) {
+            return ResponseEntity.ok()
+                    .eTag(cachePolicy.strongEtag("status", current.version()))
+                    .cacheControl(cachePolicy.revalidate())
+                    .body(status);
+        } else if ("DEGRADED".equals(status.getOverallStatus())) {
+            return ResponseEntity.status(206).cacheControl(cachePolicy.noStore()).body(status);
+        }
+        return ResponseEntity.status(503).cacheControl(cachePolicy.noStore()).body(status);
+    }
+
+    @GetMapping("/health/redis")
+    public ResponseEntity<Map<String, Object>> redisHealth() {
+        Map<String, Object> response = new HashMap<>();
+        boolean healthy = cacheService.isHealthy();
+        response.put("status", healthy ? "UP" : "DOWN");
+        response.put("timestamp", LocalDateTime.now());
+        response.put("type", "redis-serverless");
+        response.put("sample", healthSample());
+        return ResponseEntity.ok(response);
+    }
+
+    private static Map<String, Object> serviceStatus(boolean redisHealthy) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", redisHealthy ? "UP" : "DOWN");
+        response.put("timestamp", LocalDateTime.now());
+        response.put("service", "spring-redis-poc");
+        response.put("version", "1.0.0");
+        return response;
+    }
+
+    private Map<String, Object> healthSample() {
+        RedisHealthSampler.HealthSnapshot snapshot = cacheService.healthSnapshot();
+        Map<String, Object> sample = new HashMap<>();
+        sample.put("sampledAt", snapshot.sampledAt());
+        sample.put("latencyMs", snapshot.latencyMillis());
+        sample.put("lastSuccess", snapshot.lastSuccess());
+        sample.put("consecutiveFailures", snapshot.consecutiveFailures());
+        return sample;
+    }
+}
@@ -0,0 +1,84 @@
+package com.poc.controller;
+
+import com.poc.service.ReactiveServerlessCacheService;
+import com.poc.service.ServerlessCacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * WebFlux counterpart of {@link RedisTestController}. Redis calls go through the reactive cache
+ * service, never blocking the event loop.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/redis")
+public class ReactiveRedisTestController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRedisTestController.class);
+    private final ServerlessCacheService cacheService;
+    private final ReactiveServerlessCacheService reactiveCacheService;
+
+    public ReactiveRedisTestController(ServerlessCacheService cacheService,
+                                       ReactiveServerlessCacheService reactiveCacheService) {
+        this.cacheService = cacheService;
+        this.reactiveCacheService = reactiveCacheService;
+    }
+
+    @GetMapping("/test")
+    public Mono<ResponseEntity<Map<String, Object>>> testRedis() {
+        return roundTrip("test:serverless:", "Redis Serverless connection working!", "serverless");
+    }
+
+    @GetMapping("/test/async")
+    public Mono<ResponseEntity<Map<String, Object>>> testRedisAsync() {
+        return roundTrip("test:serverless:async:", "Redis Serverless async connection working!", "serverless-async");
+    }
+
+    @GetMapping("/health")
+    public ResponseEntity<Map<String, Object>> redisHealth() {
+        // Só lê o último snapshot do RedisHealthSampler: não há I/O no event loop
+        Map<String, Object> response = new HashMap<>();
+        boolean healthy = cacheService.isHealthy();
+        response.put("status", healthy ? "UP" : "DOWN");
+        response.put("type", "redis-serverless");
+        response.put("healthy", healthy);
+        response.put("sample", cacheService.healthSnapshot());
+        return ResponseEntity.ok(response);
+    }
+
+    private Mono<ResponseEntity<Map<String, Object>>> roundTrip(String keyPrefix, String testValue, String cacheType) {
+        String testKey = keyPrefix + System.currentTimeMillis();
+        return reactiveCacheService.put(testKey, testValue, Duration.ofMinutes(5))
+                .then(reactiveCacheService.get(testKey, String.class))
+                .map(retrievedValue -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("status", "SUCCESS");
+                    response.put("message", "Redis Serverless connection working");
+                    response.put("testKey", testKey);
+                    response.put("testValue", testValue);
+                    response.put("retrievedValue", retrievedValue.orElse(null));
+                    response.put("match", retrievedValue.map(v -> v.equals(testValue)).orElse(false));
+                    response.put("cacheType", cacheType);
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> {
+                    log.error("Redis Serverless test failed", e);
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("status", "ERROR");
+                    response.put("message", "Redis Serverless connection failed: " + e.getMessage());
+                    response.put("error", e.getClass().getSimpleName());
+                    response.put("cacheType", cacheType);
+                    return Mono.just(ResponseEntity.status(500).body(response));
+                });
+    }
+}
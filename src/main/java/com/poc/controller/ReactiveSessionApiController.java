@@ -0,0 +1,194 @@
+package com.poc.controller;
+
+import com.poc.config.HttpCachePolicy;
+import com.poc.model.SessionInfo;
+import com.poc.session.SessionCounter;
+import com.poc.session.SessionSizeGuard;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebSession;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * WebFlux counterpart of {@link SessionApiController}: same paths and payloads, on WebSession.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/session")
+public class ReactiveSessionApiController {
+
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final HttpCachePolicy cachePolicy;
+    // Resolvido uma vez: InetAddress.getLocalHost() pode bloquear o event loop
+    private final String containerInfo;
+    // Presente com cache.session.codec.size-guard=true; sem repositório delta no WebFlux, a checagem é só aqui
+    private final SessionSizeGuard sizeGuard;
+    private final RedisSerializer<Object> sessionSerializer;
+
+    public ReactiveSessionApiController(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                        HttpCachePolicy cachePolicy,
+                                        ObjectProvider<SessionSizeGuard> sizeGuard,
+                                        @Qualifier("springSessionDefaultRedisSerializer") RedisSerializer<Object> sessionSerializer) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.cachePolicy = cachePolicy;
+        this.sizeGuard = sizeGuard.getIfAvailable();
+        this.sessionSerializer = sessionSerializer;
+        this.containerInfo = resolveContainerInfo();
+    }
+
+    @GetMapping("/test")
+    public SessionInfo testSession(WebSession session) {
+        boolean isNew = !session.isStarted();
+        Map<String, Object> attributes = session.getAttributes();
+
+        String userId = (String) attributes.get("userId");
+        if (userId == null) {
+            userId = generateUserId(session.getId());
+            attributes.put("userId", userId);
+        }
+        int counter = (int) SessionCounter.increment(attributes, "counter");
+        attributes.put("lastAccess", Instant.now().toString());
+        if (!containerInfo.equals(attributes.get("containerInfo"))) {
+            attributes.put("containerInfo", containerInfo);
+        }
+
+        return SessionInfo.builder()
+                .sessionId(session.getId())
+                .userId(userId)
+                .counter(counter)
+                .isNew(isNew)
+                .creationTime(session.getCreationTime().toEpochMilli())
+                .lastAccessedTime(session.getLastAccessTime().toEpochMilli())
+                .containerInfo(containerInfo)
+                .build();
+    }
+
+    @GetMapping("/info")
+    public ResponseEntity<Map<String, Object>> getSessionInfo(WebSession session, ServerWebExchange exchange) {
+        // Sempre o repositório padrão no reativo: os atributos já estão todos carregados
+        String etag = cachePolicy.weakEtag("session", attributesVersion(session));
+        if (exchange.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cachePolicy.privateRevalidate())
+                    .build();
+        }
+
+        Map<String, Object> info = new HashMap<>();
+        info.put("sessionId", session.getId());
+        info.put("isNew", !session.isStarted());
+        info.put("creationTime", session.getCreationTime().toEpochMilli());
+        info.put("lastAccessedTime", session.getLastAccessTime().toEpochMilli());
+        info.put("maxInactiveInterval", (int) session.getMaxIdleTime().getSeconds());
+        info.put("attributes", new HashMap<>(session.getAttributes()));
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cachePolicy.privateRevalidate())
+                .varyBy(HttpHeaders.COOKIE)
+                .body(info);
+    }
+
+    @PostMapping("/data")
+    public Map<String, Object> storeData(@RequestBody Map<String, Object> data, WebSession session) {
+        if (sizeGuard != null) {
+            try {
+                sizeGuard.check(session.getId(), data, sessionSerializer);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+            }
+        }
+        session.getAttributes().putAll(data);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("sessionId", session.getId());
+        response.put("storedKeys", data.keySet());
+        return response;
+    }
+
+    @DeleteMapping("/clear")
+    public Mono<Map<String, Object>> clearSession(WebSession session) {
+        return session.invalidate().then(Mono.fromSupplier(() -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "session cleared");
+            response.put("timestamp", Instant.now().toString());
+            return response;
+        }));
+    }
+
+    @GetMapping("/redis/test")
+    public Mono<Map<String, Object>> testRedisDirectly() {
+        String testKey = "test:connection:" + System.currentTimeMillis();
+        String testValue = "Hello from " + containerInfo;
+
+        return reactiveRedisTemplate.opsForValue().set(testKey, testValue, Duration.ofSeconds(60))
+                .then(reactiveRedisTemplate.opsForValue().get(testKey))
+                .flatMap(retrievedValue -> reactiveRedisTemplate.delete(testKey).thenReturn(retrievedValue))
+                .map(retrievedValue -> {
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("status", "success");
+                    result.put("testKey", testKey);
+                    result.put("testValue", testValue);
+                    result.put("retrievedValue", retrievedValue);
+                    result.put("valuesMatch", testValue.equals(retrievedValue));
+                    result.put("containerInfo", containerInfo);
+                    return result;
+                })
+                .onErrorResume(e -> {
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("status", "error");
+                    result.put("error", e.getMessage());
+                    result.put("containerInfo", containerInfo);
+                    return Mono.just(result);
+                });
+    }
+
+    private static long attributesVersion(WebSession session) {
+        long version = session.getId().hashCode() * 31L + session.getMaxIdleTime().getSeconds();
+        // Ordenado por nome e encadeado: valores trocados entre atributos mudam o hash (a soma não mudava)
+        for (Map.Entry<String, Object> attribute : new TreeMap<>(session.getAttributes()).entrySet()) {
+            version = version * 31 + attribute.getKey().hashCode();
+            version = version * 31 + Objects.hashCode(attribute.getValue());
+        }
+        return version;
+    }
+
+    private static String resolveContainerInfo() {
+        try {
+            String hostname = System.getenv("HOSTNAME");
+            if (hostname == null) {
+                hostname = java.net.InetAddress.getLocalHost().getHostName();
+            }
+            return hostname;
+        } catch (Exception e) {
+            return "unknown-container";
+        }
+    }
+
+    private String generateUserId(String sessionId) {
+        // Generate deterministic userId based on sessionId for consistency
+        return "user-" + sessionId.substring(0, 8).toLowerCase();
+    }
+}
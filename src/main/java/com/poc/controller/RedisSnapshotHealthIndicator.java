@@ -0,0 +1,35 @@
+package com.poc.controller;
+
+import com.poc.service.RedisHealthSampler;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// Substitui o RedisHealthIndicator do Boot (que faz I/O por probe) pelo snapshot do sampler
+@Component("redisHealthIndicator")
+public class RedisSnapshotHealthIndicator implements HealthIndicator {
+
+    private final RedisHealthSampler healthSampler;
+
+    public RedisSnapshotHealthIndicator(RedisHealthSampler healthSampler) {
+        this.healthSampler = healthSampler;
+    }
+
+    @Override
+    public Health health() {
+        RedisHealthSampler.HealthSnapshot snapshot = healthSampler.snapshot();
+        Health.Builder builder = healthSampler.isHealthy() ? Health.up() : Health.down();
+        builder.withDetail("latencyMs", snapshot.latencyMillis())
+                .withDetail("consecutiveFailures", snapshot.consecutiveFailures());
+        if (snapshot.sampledAt() != null) {
+            builder.withDetail("sampledAt", snapshot.sampledAt().toString());
+        }
+        if (snapshot.lastSuccess() != null) {
+            builder.withDetail("lastSuccess", snapshot.lastSuccess().toString());
+        }
+        if (snapshot.lastError() != null) {
+            builder.withDetail("lastError", snapshot.lastError());
+        }
+        return builder.build();
+    }
+}
@@ -1,12 +1,15 @@
 package com.poc.controller;
 
+import com.poc.service.ReactiveServerlessCacheService;
 import com.poc.service.ServerlessCacheService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.HashMap;
@@ -14,14 +17,18 @@ import java.util.Map;
 import java.util.Optional;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/redis")
 public class RedisTestController {
 
     private static final Logger log = LoggerFactory.getLogger(RedisTestController.class);
     private final ServerlessCacheService cacheService;
+    private final ReactiveServerlessCacheService reactiveCacheService;
 
-    public RedisTestController(ServerlessCacheService cacheService) {
+    public RedisTestController(ServerlessCacheService cacheService,
+                               ReactiveServerlessCacheService reactiveCacheService) {
         this.cacheService = cacheService;
+        this.reactiveCacheService = reactiveCacheService;
     }
 
     @GetMapping("/test")
@@ -59,6 +66,36 @@ public class RedisTestController {
         }
     }
 
+    // Mesmo teste do /test, sem bloquear a thread do Tomcat durante o round trip
+    @GetMapping("/test/async")
+    public Mono<ResponseEntity<Map<String, Object>>> testRedisAsync() {
+        String testKey = "test:serverless:async:" + System.currentTimeMillis();
+        String testValue = "Redis Serverless async connection working!";
+
+        return reactiveCacheService.put(testKey, testValue, Duration.ofMinutes(5))
+                .then(reactiveCacheService.get(testKey, String.class))
+                .map(retrievedValue -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("status", "SUCCESS");
+                    response.put("message", "Redis Serverless async connection working");
+                    response.put("testKey", testKey);
+                    response.put("testValue", testValue);
+                    response.put("retrievedValue", retrievedValue.orElse(null));
+                    response.put("match", retrievedValue.map(v -> v.equals(testValue)).orElse(false));
+                    response.put("cacheType", "serverless-async");
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> {
+                    log.error("Redis Serverless async test failed", e);
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("status", "ERROR");
+                    response.put("message", "Redis Serverless connection failed: " + e.getMessage());
+                    response.put("error", e.getClass().getSimpleName());
+                    response.put("cacheType", "serverless-async");
+                    return Mono.just(ResponseEntity.status(500).body(response));
+                });
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> redisHealth() {
         Map<String, Object> response = new HashMap<>();
@@ -67,6 +104,7 @@ public class RedisTestController {
         response.put("status", healthy ? "UP" : "DOWN");
         response.put("type", "redis-serverless");
         response.put("healthy", healthy);
+        response.put("sample", cacheService.healthSnapshot());
         
         return ResponseEntity.ok(response);
     }
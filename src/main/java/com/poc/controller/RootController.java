@@ -1,5 +1,6 @@
 package com.poc.controller;
 
+import com.poc.config.HttpCachePolicy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -13,6 +14,12 @@ import java.util.Map;
 @RequestMapping("/api")
 public class RootController {
 
+    private final HttpCachePolicy cachePolicy;
+
+    public RootController(HttpCachePolicy cachePolicy) {
+        this.cachePolicy = cachePolicy;
+    }
+
     @GetMapping("/")
     public ResponseEntity<Map<String, Object>> root() {
         Map<String, Object> response = new HashMap<>();
@@ -20,7 +27,11 @@ public class RootController {
         response.put("status", "running");
         response.put("timestamp", LocalDateTime.now());
         response.put("version", "1.0.0");
-        return ResponseEntity.ok(response);
+        // ETag fraco: o timestamp muda a cada requisição, mas o restante do corpo é fixo por instância
+        return ResponseEntity.ok()
+                .eTag(cachePolicy.weakEtag("root", 1))
+                .cacheControl(cachePolicy.sharedStatus())
+                .body(response);
     }
 
     @GetMapping("/ping")
@@ -1,23 +1,53 @@
 package com.poc.controller;
 
 import com.poc.model.SessionInfo;
+import com.poc.session.DeltaRedisSessionRepository;
+import com.poc.session.SessionCounter;
+import com.poc.session.SessionSizeGuard;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import com.poc.config.HttpCachePolicy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.servlet.http.HttpSession;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/session")
 public class SessionApiController {
 
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Autowired
+    private HttpCachePolicy cachePolicy;
+
+    // Presente só com cache.session.repository=delta
+    @Autowired(required = false)
+    private DeltaRedisSessionRepository deltaRepository;
+
+    // Presente com cache.session.codec.size-guard=true; no modo delta o próprio repositório aplica os limites
+    @Autowired(required = false)
+    private SessionSizeGuard sizeGuard;
+
+    @Autowired
+    @Qualifier("springSessionDefaultRedisSerializer")
+    private RedisSerializer<Object> sessionSerializer;
+
     @GetMapping("/test")
     public SessionInfo testSession(HttpSession session) {
         String sessionId = session.getId();
@@ -29,17 +59,15 @@ public class SessionApiController {
             session.setAttribute("userId", userId);
         }
         
-        // Increment counter
-        Integer counter = (Integer) session.getAttribute("counter");
-        if (counter == null) {
-            counter = 0;
-        }
-        counter++;
-        session.setAttribute("counter", counter);
+        // Increment counter (HINCRBY no save com o repositório delta)
+        int counter = (int) SessionCounter.increment(session, "counter", deltaRepository != null);
         
         // Store additional data
         session.setAttribute("lastAccess", Instant.now().toString());
-        session.setAttribute("containerInfo", getContainerInfo());
+        String containerInfo = getContainerInfo();
+        if (!containerInfo.equals(session.getAttribute("containerInfo"))) {
+            session.setAttribute("containerInfo", containerInfo);
+        }
         
         return SessionInfo.builder()
                 .sessionId(sessionId)
@@ -53,26 +81,67 @@ public class SessionApiController {
     }
 
     @GetMapping("/info")
-    public Map<String, Object> getSessionInfo(HttpSession session) {
+    public ResponseEntity<Map<String, Object>> getSessionInfo(HttpSession session, WebRequest webRequest) {
+        // ETag fraco: lastAccessedTime/isNew mudam a cada acesso, os atributos não
+        Map<String, Object> attributes = null;
+        long version;
+        if (deltaRepository != null) {
+            // sessionVersion sobe a cada save: um HGET, sem carregar campos lazy nem blobs para o 304
+            version = session.getId().hashCode() * 31L + deltaRepository.persistedVersion(session.getId());
+        } else {
+            attributes = readAttributes(session);
+            version = attributesVersion(session, attributes);
+        }
+        String etag = cachePolicy.weakEtag("session", version);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cachePolicy.privateRevalidate())
+                    .build();
+        }
+
         Map<String, Object> info = new HashMap<>();
         info.put("sessionId", session.getId());
         info.put("isNew", session.isNew());
         info.put("creationTime", session.getCreationTime());
         info.put("lastAccessedTime", session.getLastAccessedTime());
         info.put("maxInactiveInterval", session.getMaxInactiveInterval());
+        info.put("attributes", attributes != null ? attributes : readAttributes(session));
         
-        // Get all attributes
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cachePolicy.privateRevalidate())
+                .varyBy(HttpHeaders.COOKIE)
+                .body(info);
+    }
+
+    private static Map<String, Object> readAttributes(HttpSession session) {
         Map<String, Object> attributes = new HashMap<>();
-        session.getAttributeNames().asIterator().forEachRemaining(name -> 
+        session.getAttributeNames().asIterator().forEachRemaining(name ->
             attributes.put(name, session.getAttribute(name))
         );
-        info.put("attributes", attributes);
-        
-        return info;
+        return attributes;
+    }
+
+    private static long attributesVersion(HttpSession session, Map<String, Object> attributes) {
+        long version = session.getId().hashCode() * 31L + session.getMaxInactiveInterval();
+        // Ordenado por nome e encadeado: valores trocados entre atributos mudam o hash (a soma não mudava)
+        for (Map.Entry<String, Object> attribute : new TreeMap<>(attributes).entrySet()) {
+            version = version * 31 + attribute.getKey().hashCode();
+            version = version * 31 + Objects.hashCode(attribute.getValue());
+        }
+        return version;
     }
 
     @PostMapping("/data")
     public Map<String, Object> storeData(@RequestBody Map<String, Object> data, HttpSession session) {
+        if (sizeGuard != null && deltaRepository == null) {
+            try {
+                sizeGuard.check(session.getId(), data, sessionSerializer);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+            }
+        }
         data.forEach(session::setAttribute);
         
         Map<String, Object> response = new HashMap<>();
@@ -1,7 +1,11 @@
 package com.poc.controller;
 
+import com.poc.config.HttpCachePolicy;
 import com.poc.service.ArchitectureTestService;
+import com.poc.session.DeltaRedisSessionRepository;
+import com.poc.session.SessionCounter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,12 +17,21 @@ import java.util.Map;
 import java.util.UUID;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/test")
 public class TestController {
 
     @Autowired
     private ArchitectureTestService testService;
 
+    // Estes endpoints testam balanceamento e bypass do CDN: no-store é uma escolha explícita deles
+    @Autowired
+    private HttpCachePolicy cachePolicy;
+
+    // Presente só com cache.session.repository=delta
+    @Autowired(required = false)
+    private DeltaRedisSessionRepository deltaRepository;
+
     // ESTRATÉGIA 1: Endpoint com timestamp para evitar cache
     @GetMapping("/container/{timestamp}")
     public ResponseEntity<Map<String, Object>> getContainerWithTimestamp(
@@ -33,10 +46,7 @@ public class TestController {
         result.put("clientIp", getClientIp(request));
         
         // Headers anti-cache
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("Cache-Control", "no-cache, no-store, must-revalidate");
-        headers.add("Pragma", "no-cache");
-        headers.add("Expires", "0");
+        HttpHeaders headers = cachePolicy.noStoreHeaders();
         
         return ResponseEntity.ok().headers(headers).body(result);
     }
@@ -56,10 +66,7 @@ public class TestController {
         result.put("headers", getCloudFrontHeaders(request));
         
         // Headers anti-cache
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("Cache-Control", "no-cache, no-store, must-revalidate");
-        headers.add("Pragma", "no-cache");
-        headers.add("Expires", "0");
+        HttpHeaders headers = cachePolicy.noStoreHeaders();
         headers.add("X-Request-ID", UUID.randomUUID().toString());
         
         return ResponseEntity.ok().headers(headers).body(result);
@@ -79,10 +86,7 @@ public class TestController {
         result.put("inputData", data);
         
         // Increment session counter
-        Integer counter = (Integer) request.getSession().getAttribute("counter");
-        if (counter == null) counter = 0;
-        counter++;
-        request.getSession().setAttribute("counter", counter);
+        long counter = SessionCounter.increment(request.getSession(), "counter", deltaRepository != null);
         result.put("sessionCounter", counter);
         
         return ResponseEntity.ok(result);
@@ -103,10 +107,8 @@ public class TestController {
         result.put("cloudFrontHeaders", getCloudFrontHeaders(request));
         
         // Headers anti-cache mais agressivos
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("Cache-Control", "no-cache, no-store, must-revalidate, private");
-        headers.add("Pragma", "no-cache");
-        headers.add("Expires", "Thu, 01 Jan 1970 00:00:00 GMT");
+        HttpHeaders headers = cachePolicy.noStoreHeaders();
+        headers.setCacheControl(cachePolicy.noStore().cachePrivate());
         headers.add("X-Accel-Expires", "0");
         headers.add("Vary", "*");
         
@@ -130,7 +132,7 @@ public class TestController {
         
         // Headers para polling
         HttpHeaders headers = new HttpHeaders();
-        headers.add("Cache-Control", "no-cache");
+        headers.setCacheControl(cachePolicy.revalidate());
         headers.add("X-Timestamp", String.valueOf(currentTime));
         
         return ResponseEntity.ok().headers(headers).body(result);
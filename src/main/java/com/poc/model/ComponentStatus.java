@@ -1,5 +1,9 @@
 package com.poc.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// statusColor/statusIcon são derivados de status: saem no JSON (dashboard) e são ignorados na leitura
+@JsonIgnoreProperties(value = {"statusColor", "statusIcon"}, allowGetters = true)
 public class ComponentStatus {
     private String name;
     private String status;
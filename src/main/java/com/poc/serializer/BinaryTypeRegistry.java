@@ -0,0 +1,69 @@
+package com.poc.serializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stable type-id table used by {@link CompactBinaryRedisSerializer} in place of
+ * fully-qualified class names. Ids are persisted in Redis: never renumber or reuse one.
+ */
+public class BinaryTypeRegistry {
+
+    public static final int STRING = 1;
+    public static final int INTEGER = 2;
+    public static final int LONG = 3;
+    public static final int BOOLEAN = 4;
+    public static final int DOUBLE = 5;
+
+    // Ids below this value are reserved for the primitive encodings above
+    public static final int FIRST_OBJECT_ID = 32;
+
+    private final Map<Class<?>, Integer> idsByType = new HashMap<>();
+    private final Map<Integer, Class<?>> typesById = new HashMap<>();
+
+    public BinaryTypeRegistry() {
+        put(STRING, String.class);
+        put(INTEGER, Integer.class);
+        put(LONG, Long.class);
+        put(BOOLEAN, Boolean.class);
+        put(DOUBLE, Double.class);
+    }
+
+    public BinaryTypeRegistry register(int id, Class<?> type) {
+        checkFree(id, type);
+        put(id, type);
+        return this;
+    }
+
+    /**
+     * Keeps decoding an id that is no longer written, so values already in Redis stay readable
+     * until they expire. The id stays reserved.
+     */
+    public BinaryTypeRegistry registerReadOnly(int id, Class<?> type) {
+        checkFree(id, type);
+        typesById.put(id, type);
+        return this;
+    }
+
+    public Integer idOf(Class<?> type) {
+        return idsByType.get(type);
+    }
+
+    public Class<?> typeOf(int id) {
+        return typesById.get(id);
+    }
+
+    private void checkFree(int id, Class<?> type) {
+        if (id < FIRST_OBJECT_ID || id > 255) {
+            throw new IllegalArgumentException("Object type ids must be in [" + FIRST_OBJECT_ID + ", 255]: " + id);
+        }
+        if (typesById.containsKey(id) || idsByType.containsKey(type)) {
+            throw new IllegalArgumentException("Duplicate registration for id " + id + " / " + type.getName());
+        }
+    }
+
+    private void put(int id, Class<?> type) {
+        idsByType.put(type, id);
+        typesById.put(id, type);
+    }
+}
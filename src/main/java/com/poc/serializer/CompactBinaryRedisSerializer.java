@@ -0,0 +1,120 @@
+package com.poc.serializer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact value format: {@code [MAGIC][type id][payload]}. Primitives are written raw,
+ * registered objects as Smile (binary JSON, unknown fields ignored on read so classes can
+ * evolve). Unregistered types and any value not starting with {@link #MAGIC} go through the
+ * legacy {@link GenericJackson2JsonRedisSerializer}, so old JSON entries remain readable.
+ */
+public class CompactBinaryRedisSerializer implements RedisSerializer<Object> {
+
+    // Never a valid first byte of UTF-8 JSON text
+    static final byte MAGIC = (byte) 0xB1;
+
+    private final BinaryTypeRegistry registry;
+    private final ObjectMapper smileMapper;
+    private final RedisSerializer<Object> legacySerializer;
+
+    public CompactBinaryRedisSerializer(BinaryTypeRegistry registry) {
+        this(registry, new GenericJackson2JsonRedisSerializer());
+    }
+
+    public CompactBinaryRedisSerializer(BinaryTypeRegistry registry, RedisSerializer<Object> legacySerializer) {
+        this.registry = registry;
+        this.legacySerializer = legacySerializer;
+        this.smileMapper = SmileMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .findAndAddModules()
+                .build();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        Integer typeId = registry.idOf(value.getClass());
+        if (typeId == null) {
+            return legacySerializer.serialize(value);
+        }
+        byte[] payload = encode(typeId, value);
+        byte[] result = new byte[payload.length + 2];
+        result[0] = MAGIC;
+        result[1] = (byte) typeId.intValue();
+        System.arraycopy(payload, 0, result, 2, payload.length);
+        return result;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return legacySerializer.deserialize(bytes);
+        }
+        if (bytes.length < 2) {
+            throw new SerializationException("Truncated compact value");
+        }
+        int typeId = bytes[1] & 0xFF;
+        return decode(typeId, Arrays.copyOfRange(bytes, 2, bytes.length));
+    }
+
+    private byte[] encode(int typeId, Object value) {
+        switch (typeId) {
+            case BinaryTypeRegistry.STRING:
+                return ((String) value).getBytes(StandardCharsets.UTF_8);
+            case BinaryTypeRegistry.INTEGER:
+                return ByteBuffer.allocate(Integer.BYTES).putInt((Integer) value).array();
+            case BinaryTypeRegistry.LONG:
+                return ByteBuffer.allocate(Long.BYTES).putLong((Long) value).array();
+            case BinaryTypeRegistry.BOOLEAN:
+                return new byte[] { (byte) (((Boolean) value) ? 1 : 0) };
+            case BinaryTypeRegistry.DOUBLE:
+                return ByteBuffer.allocate(Double.BYTES).putDouble((Double) value).array();
+            default:
+                try {
+                    return smileMapper.writeValueAsBytes(value);
+                } catch (IOException e) {
+                    throw new SerializationException("Could not write compact value of type " + value.getClass().getName(), e);
+                }
+        }
+    }
+
+    private Object decode(int typeId, byte[] payload) {
+        switch (typeId) {
+            case BinaryTypeRegistry.STRING:
+                return new String(payload, StandardCharsets.UTF_8);
+            case BinaryTypeRegistry.INTEGER:
+                return ByteBuffer.wrap(payload).getInt();
+            case BinaryTypeRegistry.LONG:
+                return ByteBuffer.wrap(payload).getLong();
+            case BinaryTypeRegistry.BOOLEAN:
+                return payload.length > 0 && payload[0] != 0;
+            case BinaryTypeRegistry.DOUBLE:
+                return ByteBuffer.wrap(payload).getDouble();
+            default:
+                Class<?> type = registry.typeOf(typeId);
+                if (type == null) {
+                    throw new SerializationException("Unknown compact type id: " + typeId);
+                }
+                try {
+                    return smileMapper.readValue(payload, type);
+                } catch (IOException e) {
+                    throw new SerializationException("Could not read compact value of type " + type.getName(), e);
+                }
+        }
+    }
+}
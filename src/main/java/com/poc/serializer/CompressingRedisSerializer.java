@@ -0,0 +1,174 @@
+package com.poc.serializer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Wraps a value serializer and deflates payloads above a size threshold. Compressed values
+ * are framed as {@code [HEADER][codec][uncompressed length][zlib stream]}; anything without
+ * the header is handed to the delegate untouched, so raw and compressed values coexist.
+ * An optional preset dictionary (concatenated sample payloads) helps small repetitive JSON.
+ * Compressed values are always decoded; {@code compressOnWrite} only controls new writes, so the
+ * format can be rolled out (and back) without breaking values already stored.
+ */
+public class CompressingRedisSerializer implements RedisSerializer<Object> {
+
+    // Not a valid first byte for JSON text, JDK serialization (0xAC) or the compact format (0xB1)
+    static final byte HEADER = (byte) 0xC7;
+    static final byte CODEC_ZLIB = 1;
+
+    private final RedisSerializer<Object> delegate;
+    private final boolean compressOnWrite;
+    private final int threshold;
+    private final int maxRawLength;
+    private final int level;
+    private final byte[] dictionary;
+    private final long dictionaryId;
+    private final Counter bytesInCounter;
+    private final Counter bytesOutCounter;
+    private final DistributionSummary ratioSummary;
+    private final Timer compressTimer;
+    private final Timer decompressTimer;
+
+    public CompressingRedisSerializer(RedisSerializer<Object> delegate, boolean compressOnWrite, int threshold,
+                                      int level, int maxRawLength, byte[] dictionary,
+                                      MeterRegistry meterRegistry, String name) {
+        this.delegate = delegate;
+        this.compressOnWrite = compressOnWrite;
+        this.threshold = threshold;
+        this.maxRawLength = maxRawLength;
+        this.level = level;
+        this.dictionary = dictionary != null && dictionary.length > 0 ? dictionary : null;
+        this.dictionaryId = this.dictionary != null ? adler32(this.dictionary) : -1;
+        this.bytesInCounter = Counter.builder("redis.compression.bytes.in")
+                .description("Uncompressed bytes of values that were compressed")
+                .tag("serializer", name)
+                .register(meterRegistry);
+        this.bytesOutCounter = Counter.builder("redis.compression.bytes.out")
+                .description("Compressed bytes written to Redis")
+                .tag("serializer", name)
+                .register(meterRegistry);
+        this.ratioSummary = DistributionSummary.builder("redis.compression.ratio")
+                .description("Uncompressed / compressed size per value")
+                .tag("serializer", name)
+                .register(meterRegistry);
+        this.compressTimer = Timer.builder("redis.compression.duration")
+                .tag("serializer", name)
+                .tag("operation", "compress")
+                .register(meterRegistry);
+        this.decompressTimer = Timer.builder("redis.compression.duration")
+                .tag("serializer", name)
+                .tag("operation", "decompress")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] raw = delegate.serialize(value);
+        // Acima do limite de leitura grava cru: nunca produz um valor que o próprio decoder recusaria
+        if (!compressOnWrite || raw == null || raw.length < threshold || raw.length > maxRawLength) {
+            return raw;
+        }
+        long start = System.nanoTime();
+        byte[] compressed = compress(raw);
+        compressTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (compressed.length >= raw.length) {
+            return raw;
+        }
+        bytesInCounter.increment(raw.length);
+        bytesOutCounter.increment(compressed.length);
+        ratioSummary.record((double) raw.length / compressed.length);
+        return compressed;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || bytes[0] != HEADER) {
+            return delegate.deserialize(bytes);
+        }
+        long start = System.nanoTime();
+        byte[] raw = decompress(bytes);
+        decompressTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return delegate.deserialize(raw);
+    }
+
+    private byte[] compress(byte[] raw) {
+        Deflater deflater = new Deflater(level);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            out.write(HEADER);
+            out.write(CODEC_ZLIB);
+            out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(raw.length).array());
+            byte[] buffer = new byte[Math.min(raw.length, 8192)];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(buffer);
+                out.write(buffer, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] decompress(byte[] bytes) {
+        if (bytes.length < 6 || bytes[1] != CODEC_ZLIB) {
+            throw new SerializationException("Unsupported compressed value codec");
+        }
+        int rawLength = ByteBuffer.wrap(bytes, 2, Integer.BYTES).getInt();
+        // Tamanho vem do próprio valor: limitado antes de alocar
+        if (rawLength < 0 || rawLength > maxRawLength) {
+            throw new SerializationException("Compressed value declares " + rawLength
+                    + " bytes, above the " + maxRawLength + " byte limit");
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, 6, bytes.length - 6);
+            byte[] raw = new byte[rawLength];
+            int offset = 0;
+            while (offset < rawLength && !inflater.finished()) {
+                int read = inflater.inflate(raw, offset, rawLength - offset);
+                if (read == 0 && inflater.needsDictionary()) {
+                    // zlib carries the Adler-32 of the dictionary used at write time (getAdler() é int com sinal)
+                    if (dictionary == null || (inflater.getAdler() & 0xFFFFFFFFL) != dictionaryId) {
+                        throw new SerializationException("Compressed value requires an unknown dictionary");
+                    }
+                    inflater.setDictionary(dictionary);
+                } else if (read == 0 && inflater.needsInput()) {
+                    throw new SerializationException("Truncated compressed value");
+                }
+                offset += read;
+            }
+            if (offset != rawLength) {
+                throw new SerializationException("Compressed value does not match its declared length");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupt compressed value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long adler32(byte[] data) {
+        Adler32 adler = new Adler32();
+        adler.update(data);
+        return adler.getValue();
+    }
+}
@@ -0,0 +1,198 @@
+package com.poc.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.model.ArchitectureStatus;
+import com.poc.model.ComponentStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single broadcaster behind the dashboard SSE stream: the status is read and diffed once per tick
+ * and the same serialized delta is written to every subscriber, so N open tabs cost one computation.
+ */
+@Service
+public class ArchitectureStatusBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchitectureStatusBroadcaster.class);
+
+    private final ArchitectureTestService architectureTestService;
+    private final ObjectMapper objectMapper;
+    private final Duration period;
+    private final Duration heartbeat;
+    private final Duration emitterTimeout;
+    private final long latencyThresholdMillis;
+    private final double latencyThresholdRatio;
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+
+    // Último estado enviado por componente; só o thread do broadcaster escreve
+    private final Map<String, ComponentStatus> lastSent = new LinkedHashMap<>();
+    private volatile String lastFullSnapshot;
+    private long lastEventNanos;
+    private ScheduledExecutorService broadcastExecutor;
+
+    public ArchitectureStatusBroadcaster(ArchitectureTestService architectureTestService,
+                                         ObjectMapper objectMapper,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${cache.status.stream.period:2s}") Duration period,
+                                         @Value("${cache.status.stream.heartbeat:20s}") Duration heartbeat,
+                                         @Value("${cache.status.stream.timeout:30m}") Duration emitterTimeout,
+                                         @Value("${cache.status.stream.latency-threshold:20ms}") Duration latencyThreshold,
+                                         @Value("${cache.status.stream.latency-threshold-ratio:0.5}") double latencyThresholdRatio) {
+        this.architectureTestService = architectureTestService;
+        this.objectMapper = objectMapper;
+        this.period = period;
+        this.heartbeat = heartbeat;
+        this.emitterTimeout = emitterTimeout;
+        this.latencyThresholdMillis = latencyThreshold.toMillis();
+        this.latencyThresholdRatio = latencyThresholdRatio;
+        Gauge.builder("dashboard.sse.subscribers", subscribers, List::size)
+                .description("Open dashboard status streams")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        broadcastExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "status-broadcaster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        broadcastExecutor.scheduleWithFixedDelay(this::tick, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (broadcastExecutor != null) {
+            broadcastExecutor.shutdownNow();
+        }
+        subscribers.forEach(SseEmitter::complete);
+        subscribers.clear();
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+        // Registro no próprio thread do broadcaster: nenhum tick roda entre o snapshot e a inscrição,
+        // então nenhum delta se perde nem chega antes do snapshot
+        broadcastExecutor.execute(() -> register(emitter));
+        return emitter;
+    }
+
+    private void register(SseEmitter emitter) {
+        try {
+            // Novo assinante recebe o estado completo; depois só deltas
+            String snapshot = lastFullSnapshot;
+            if (snapshot == null) {
+                snapshot = serialize(fullSnapshot(architectureTestService.getArchitectureStatus()));
+            }
+            emitter.send(SseEmitter.event().name("snapshot").data(snapshot, MediaType.APPLICATION_JSON));
+            subscribers.add(emitter);
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void tick() {
+        try {
+            if (subscribers.isEmpty()) {
+                // Sem assinantes não há por que consultar o status
+                lastSent.clear();
+                lastFullSnapshot = null;
+                return;
+            }
+            ArchitectureStatus status = architectureTestService.getArchitectureStatus();
+            Map<String, ComponentStatus> current = components(status);
+            Map<String, ComponentStatus> changed = new LinkedHashMap<>();
+            current.forEach((name, component) -> {
+                if (changedMeaningfully(lastSent.get(name), component)) {
+                    changed.put(name, component);
+                }
+            });
+            lastFullSnapshot = serialize(fullSnapshot(status));
+            if (!changed.isEmpty()) {
+                lastSent.putAll(changed);
+                Map<String, Object> delta = new LinkedHashMap<>();
+                delta.put("timestamp", Instant.now().toString());
+                delta.put("overallStatus", status.getOverallStatus());
+                delta.put("healthyCount", status.getHealthyCount());
+                delta.put("allHealthy", status.isAllHealthy());
+                delta.put("components", changed);
+                String payload = serialize(delta);
+                broadcast(() -> SseEmitter.event().name("delta").data(payload, MediaType.APPLICATION_JSON));
+            } else if (System.nanoTime() - lastEventNanos >= heartbeat.toNanos()) {
+                // Mantém a conexão viva atrás do ALB (idle timeout) sem enviar dados
+                broadcast(() -> SseEmitter.event().comment("keepalive"));
+            }
+        } catch (RuntimeException | JsonProcessingException e) {
+            log.warn("Status broadcast failed", e);
+        }
+    }
+
+    // Payload já serializado uma vez; o builder é recriado por emitter porque build() não é reutilizável
+    private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+        lastEventNanos = System.nanoTime();
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(event.get());
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(emitter);
+                log.debug("Dropping status subscriber: {}", e.getMessage());
+            }
+        }
+    }
+
+    private boolean changedMeaningfully(ComponentStatus previous, ComponentStatus current) {
+        if (previous == null || !String.valueOf(previous.getStatus()).equals(String.valueOf(current.getStatus()))) {
+            return true;
+        }
+        long delta = Math.abs(current.getResponseTime() - previous.getResponseTime());
+        return delta >= latencyThresholdMillis
+                && delta >= Math.abs(previous.getResponseTime()) * latencyThresholdRatio;
+    }
+
+    private Map<String, Object> fullSnapshot(ArchitectureStatus status) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("timestamp", Instant.now().toString());
+        snapshot.put("overallStatus", status.getOverallStatus());
+        snapshot.put("healthyCount", status.getHealthyCount());
+        snapshot.put("allHealthy", status.isAllHealthy());
+        snapshot.put("components", components(status));
+        return snapshot;
+    }
+
+    private static Map<String, ComponentStatus> components(ArchitectureStatus status) {
+        Map<String, ComponentStatus> components = new LinkedHashMap<>();
+        components.put("container", status.getContainerStatus());
+        components.put("redis", status.getRedisStatus());
+        components.put("session", status.getSessionStatus());
+        components.put("cloudFront", status.getCloudFrontStatus());
+        return components;
+    }
+
+    private String serialize(Object payload) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(payload);
+    }
+}
@@ -2,19 +2,41 @@ package com.poc.service;
 
 import com.poc.model.ArchitectureStatus;
 import com.poc.model.ComponentStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class ArchitectureTestService {
 
+    private static final Logger log = LoggerFactory.getLogger(ArchitectureTestService.class);
+
+    // Faixas de latência publicadas no status; o valor exato vai só para o timer
+    private static final long[] LATENCY_BUCKETS_MILLIS = {5, 10, 25, 50, 100, 250, 500, 1000};
+
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.status.min-refresh-interval:5s}")
+    private Duration minRefreshInterval;
     
     private volatile ComponentStatus cachedRedisStatus = ComponentStatus.builder()
             .name("Redis Cache")
@@ -23,10 +45,78 @@ public class ArchitectureTestService {
             .responseTime(0L)
             .build();
 
+    // Status montado uma vez por refresh e compartilhado por todas as requisições até o próximo;
+    // a versão só avança quando o conteúdo muda e alimenta o ETag dos endpoints de status
+    private volatile VersionedStatus cachedStatus;
+    private volatile long lastRefreshNanos;
+    private final AtomicBoolean refreshInFlight = new AtomicBoolean();
+    private ExecutorService refreshExecutor;
+    private String healthCheckKey;
+    private Timer redisProbeTimer;
+
+    @PostConstruct
+    public void start() {
+        // Chave fixa por container: evita criar uma chave nova por probe
+        healthCheckKey = "health:check:" + getContainerInfo();
+        redisProbeTimer = Timer.builder("architecture.status.redis.probe")
+                .description("Exact latency of the Redis round trip behind the status endpoints")
+                .register(meterRegistry);
+        cachedStatus = new VersionedStatus(1, buildStatus());
+        refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "architecture-status-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lastRefreshNanos = System.nanoTime() - minRefreshInterval.toNanos();
+        requestRefresh();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
     public ArchitectureStatus getArchitectureStatus() {
-        // Start async Redis check but don't wait
-        CompletableFuture.runAsync(this::updateRedisStatus);
-        
+        return getVersionedStatus().status();
+    }
+
+    public VersionedStatus getVersionedStatus() {
+        // Não espera o probe: dispara no máximo um refresh por intervalo e devolve o último status
+        requestRefresh();
+        return cachedStatus;
+    }
+
+    private void requestRefresh() {
+        if (System.nanoTime() - lastRefreshNanos < minRefreshInterval.toNanos()
+                || !refreshInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(this::refresh);
+        } catch (RejectedExecutionException e) {
+            refreshInFlight.set(false);
+        }
+    }
+
+    private void refresh() {
+        try {
+            updateRedisStatus();
+            ArchitectureStatus status = buildStatus();
+            VersionedStatus previous = cachedStatus;
+            if (!signature(status).equals(signature(previous.status()))) {
+                cachedStatus = new VersionedStatus(previous.version() + 1, status);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Architecture status refresh failed", e);
+        } finally {
+            lastRefreshNanos = System.nanoTime();
+            refreshInFlight.set(false);
+        }
+    }
+
+    private ArchitectureStatus buildStatus() {
         return ArchitectureStatus.builder()
                 .containerStatus(getContainerStatus())
                 .redisStatus(cachedRedisStatus)
@@ -36,6 +126,17 @@ public class ArchitectureTestService {
                 .build();
     }
 
+    // Só campos estáveis entram na versão: status e faixa de latência, nunca o valor cru
+    static String signature(ArchitectureStatus status) {
+        StringBuilder signature = new StringBuilder(status.getOverallStatus());
+        for (ComponentStatus component : status.getComponents()) {
+            signature.append('|').append(component.getStatus())
+                    .append('|').append(component.getDetails())
+                    .append('|').append(component.getResponseTime());
+        }
+        return signature.toString();
+    }
+
     private ComponentStatus getContainerStatus() {
         try {
             String hostname = getContainerInfo();
@@ -61,20 +162,21 @@ public class ArchitectureTestService {
     private void updateRedisStatus() {
         try {
             long startTime = System.currentTimeMillis();
-            String testKey = "health:check:" + System.currentTimeMillis();
             String testValue = "ping";
             
-            redisTemplate.opsForValue().set(testKey, testValue, 10, TimeUnit.SECONDS);
-            String result = (String) redisTemplate.opsForValue().get(testKey);
-            redisTemplate.delete(testKey);
+            redisTemplate.opsForValue().set(healthCheckKey, testValue, 10, TimeUnit.SECONDS);
+            String result = (String) redisTemplate.opsForValue().get(healthCheckKey);
+            redisTemplate.delete(healthCheckKey);
             
             long responseTime = System.currentTimeMillis() - startTime;
+            redisProbeTimer.record(responseTime, TimeUnit.MILLISECONDS);
+            long bucket = latencyBucket(responseTime);
             
             cachedRedisStatus = ComponentStatus.builder()
                     .name("Redis Cache")
                     .status(testValue.equals(result) ? "healthy" : "warning")
-                    .details("Connection successful | Response time: " + responseTime + "ms")
-                    .responseTime(responseTime)
+                    .details("Connection successful | Response time: " + bucketLabel(bucket))
+                    .responseTime(bucket)
                     .build();
         } catch (Exception e) {
             cachedRedisStatus = ComponentStatus.builder()
@@ -86,6 +188,22 @@ public class ArchitectureTestService {
         }
     }
 
+    // Limite superior da faixa; tudo acima da penúltima cai na última (rótulo ">500ms")
+    static long latencyBucket(long millis) {
+        for (long bucket : LATENCY_BUCKETS_MILLIS) {
+            if (millis <= bucket) {
+                return bucket;
+            }
+        }
+        return LATENCY_BUCKETS_MILLIS[LATENCY_BUCKETS_MILLIS.length - 1];
+    }
+
+    private static String bucketLabel(long bucket) {
+        return bucket == LATENCY_BUCKETS_MILLIS[LATENCY_BUCKETS_MILLIS.length - 1]
+                ? ">" + LATENCY_BUCKETS_MILLIS[LATENCY_BUCKETS_MILLIS.length - 2] + "ms"
+                : "<=" + bucket + "ms";
+    }
+
     private ComponentStatus getSessionStatusFromCache() {
         return ComponentStatus.builder()
                 .name("Session Store")
@@ -126,4 +244,7 @@ public class ArchitectureTestService {
             return "unknown-container";
         }
     }
+
+    public record VersionedStatus(long version, ArchitectureStatus status) {
+    }
 }
@@ -0,0 +1,214 @@
+package com.poc.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.poc.cache.CountMinSketch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples reads into a count-min sketch over a sliding window (two rotating halves) and keeps
+ * the top-K keys above a threshold. Hot keys get a short-TTL local copy so a single shard stops
+ * absorbing most of the read traffic.
+ */
+@Service
+public class HotKeyTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyTracker.class);
+
+    private final ServerlessNearCache nearCache;
+    private final boolean enabled;
+    private final int sampleRate;
+    private final long threshold;
+    private final int topK;
+    private final Duration window;
+    private final Cache<String, Object> localCopies;
+    private final Counter localHitCounter;
+    private final Counter promotionCounter;
+
+    private volatile CountMinSketch current;
+    private volatile CountMinSketch previous;
+    // Conjunto imutável lido sem lock; só é refeito quando a composição do top-K muda
+    private volatile Set<String> hotKeys = Set.of();
+    private volatile long admissionFloor;
+    private final Map<String, Long> candidateCounts = new ConcurrentHashMap<>();
+    private ScheduledExecutorService rotationExecutor;
+
+    public HotKeyTracker(ServerlessNearCache nearCache,
+                         MeterRegistry meterRegistry,
+                         @Value("${cache.hot-keys.enabled:true}") boolean enabled,
+                         @Value("${cache.hot-keys.sample-rate:10}") int sampleRate,
+                         @Value("${cache.hot-keys.threshold:1000}") long threshold,
+                         @Value("${cache.hot-keys.top-k:50}") int topK,
+                         @Value("${cache.hot-keys.window:10s}") Duration window,
+                         @Value("${cache.hot-keys.local-ttl:1s}") Duration localTtl,
+                         @Value("${cache.hot-keys.sketch-width:4096}") int sketchWidth) {
+        this.nearCache = nearCache;
+        this.enabled = enabled;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.threshold = threshold;
+        this.topK = topK;
+        this.window = window;
+        this.current = new CountMinSketch(sketchWidth);
+        this.previous = new CountMinSketch(sketchWidth);
+        this.localCopies = Caffeine.newBuilder()
+                .maximumSize(topK)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.localHitCounter = Counter.builder("redis.hotkeys.local.hits")
+                .description("Reads served from a local hot-key copy")
+                .register(meterRegistry);
+        this.promotionCounter = Counter.builder("redis.hotkeys.promotions")
+                .description("Keys promoted to the hot set")
+                .register(meterRegistry);
+        Gauge.builder("redis.hotkeys.count", this, tracker -> tracker.hotKeys.size())
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        nearCache.addInvalidationListener(key -> {
+            if (key == null) {
+                localCopies.invalidateAll();
+            } else {
+                localCopies.invalidate(key);
+            }
+        });
+        rotationExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-key-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long halfWindow = Math.max(1, window.toMillis() / 2);
+        rotationExecutor.scheduleAtFixedRate(this::rotate, halfWindow, halfWindow, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rotationExecutor != null) {
+            rotationExecutor.shutdownNow();
+        }
+    }
+
+    public void recordRead(String key) {
+        if (!enabled || ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        long estimate = current.add(key, sampleRate) + previous.estimate(key);
+        if (estimate >= threshold) {
+            offer(key, estimate);
+        }
+    }
+
+    public Optional<Object> getLocalCopy(String key) {
+        if (!enabled || !hotKeys.contains(key)) {
+            return Optional.empty();
+        }
+        Object value = localCopies.getIfPresent(key);
+        if (value != null) {
+            localHitCounter.increment();
+        }
+        return Optional.ofNullable(value);
+    }
+
+    public void storeLocalCopy(String key, Object value) {
+        if (enabled && value != null && hotKeys.contains(key)) {
+            localCopies.put(key, value);
+        }
+    }
+
+    public void invalidate(String key) {
+        localCopies.invalidate(key);
+    }
+
+    public List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        Map<String, Long> counts = new HashMap<>(candidateCounts);
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .forEach(entry -> {
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("key", entry.getKey());
+                    item.put("estimatedReads", entry.getValue());
+                    item.put("localCopy", localCopies.getIfPresent(entry.getKey()) != null);
+                    result.add(item);
+                });
+        return result;
+    }
+
+    private void offer(String key, long estimate) {
+        // Caminho quente (chave já no top-K): só atualiza a contagem, sem lock nem cópia do conjunto
+        if (candidateCounts.computeIfPresent(key, (ignored, count) -> Math.max(count, estimate)) != null) {
+            return;
+        }
+        if (estimate <= admissionFloor) {
+            return;
+        }
+        admit(key, estimate);
+    }
+
+    private synchronized void admit(String key, long estimate) {
+        if (candidateCounts.containsKey(key)) {
+            return;
+        }
+        if (candidateCounts.size() >= topK) {
+            // Só quando uma chave de fora tenta entrar: O(K) para achar o menor candidato
+            Map.Entry<String, Long> smallest = candidateCounts.entrySet().stream()
+                    .min(Map.Entry.comparingByValue())
+                    .orElse(null);
+            if (smallest == null || smallest.getValue() >= estimate) {
+                admissionFloor = smallest != null ? smallest.getValue() : 0;
+                return;
+            }
+            candidateCounts.remove(smallest.getKey());
+            localCopies.invalidate(smallest.getKey());
+        }
+        candidateCounts.put(key, estimate);
+        promotionCounter.increment();
+        log.debug("Hot key detected: {} (~{} reads/window)", key, estimate);
+        membershipChanged();
+    }
+
+    private void membershipChanged() {
+        hotKeys = Set.copyOf(candidateCounts.keySet());
+        admissionFloor = candidateCounts.size() < topK ? 0
+                : candidateCounts.values().stream().mapToLong(Long::longValue).min().orElse(0);
+    }
+
+    private synchronized void rotate() {
+        CountMinSketch expired = previous;
+        expired.clear();
+        previous = current;
+        current = expired;
+        // Só a metade recém-fechada tem dados: extrapola para a janela inteira, a mesma escala
+        // usada na admissão (current + previous contra threshold); chaves que esfriaram saem
+        candidateCounts.replaceAll((key, ignored) -> 2 * previous.estimate(key));
+        candidateCounts.values().removeIf(estimate -> estimate < threshold);
+        localCopies.asMap().keySet().removeIf(key -> !candidateCounts.containsKey(key));
+        membershipChanged();
+    }
+}
@@ -0,0 +1,166 @@
+package com.poc.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class ReactiveServerlessCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveServerlessCacheService.class);
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final RedisServerlessMonitoringService monitoringService;
+    private final ServerlessNearCache nearCache;
+    private final ServerlessMissFilter missFilter;
+    private final ServerlessCacheService cacheService;
+
+    public ReactiveServerlessCacheService(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                          RedisServerlessMonitoringService monitoringService,
+                                          ServerlessNearCache nearCache,
+                                          ServerlessMissFilter missFilter,
+                                          ServerlessCacheService cacheService) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.monitoringService = monitoringService;
+        this.nearCache = nearCache;
+        this.missFilter = missFilter;
+        this.cacheService = cacheService;
+    }
+
+    public Mono<Void> put(String key, Object value) {
+        return put(key, value, DEFAULT_TTL);
+    }
+
+    public Mono<Void> put(String key, Object value, Duration ttl) {
+        // SET e SETBITs do Bloom na mesma conexão; L1, hot keys e last-known como no stack bloqueante
+        Mono<Void> write = reactiveRedisTemplate.opsForValue().set(key, value, ttl)
+                .then(Mono.defer(() -> missFilter.recordWrite(reactiveRedisTemplate, key)));
+        return monitoringService.monitorReactive("put", key, write)
+                .then(Mono.fromRunnable(() -> {
+                    cacheService.afterWrite(key, value);
+                    log.debug("Cached value for key: {} with TTL: {}", key, ttl);
+                }));
+    }
+
+    public <T> Mono<Optional<T>> get(String key, Class<T> type) {
+        // defer: L1 consultado na assinatura, não na montagem (put(...).then(get(...)) e retries leem o estado atual)
+        return Mono.defer(() -> {
+            Optional<Object> local = cacheService.localValue(key);
+            if (local.isPresent()) {
+                return Mono.just(local.filter(type::isInstance).map(type::cast));
+            }
+            if (cacheService.isDefinitelyAbsent(key)) {
+                return Mono.just(Optional.<T>empty());
+            }
+            Mono<ServerlessNearCache.Loaded> read = nearCache.loadReactive(key, readWithTtl(key));
+            return monitoringService.monitorReactive("get", key, read)
+                    .map(loaded -> {
+                        Object value = loaded.value();
+                        cacheService.afterRead(key, value);
+                        if (value != null && type.isInstance(value)) {
+                            log.debug("Cache hit for key: {}", key);
+                            return Optional.of(type.cast(value));
+                        }
+                        log.debug("Cache miss for key: {}", key);
+                        return Optional.<T>empty();
+                    })
+                    .onErrorResume(RuntimeException.class,
+                            e -> Mono.fromCallable(() -> Optional.of(cacheService.lastKnownOrThrow(key, type, e))));
+        });
+    }
+
+    public <T> Mono<Map<String, T>> getAll(Collection<String> keys, Class<T> type) {
+        return Mono.defer(() -> {
+            Map<String, T> found = new LinkedHashMap<>();
+            List<String> remoteKeys = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                Optional<Object> local = nearCache.getIfPresent(key);
+                if (local.isPresent()) {
+                    local.filter(type::isInstance).ifPresent(value -> found.put(key, type.cast(value)));
+                } else if (!cacheService.isDefinitelyAbsent(key)) {
+                    remoteKeys.add(key);
+                }
+            }
+            if (remoteKeys.isEmpty()) {
+                return Mono.just(found);
+            }
+            // Um MGET por slot (serverless rejeita CROSSSLOT); os comandos seguem juntos na mesma conexão
+            Mono<Map<String, T>> bySlot = Flux.fromIterable(ServerlessCacheService.groupBySlot(remoteKeys))
+                    .flatMap(slotKeys -> reactiveRedisTemplate.opsForValue().multiGet(slotKeys)
+                            .doOnNext(values -> {
+                                for (int i = 0; i < slotKeys.size(); i++) {
+                                    Object value = values.get(i);
+                                    if (value == null) {
+                                        cacheService.afterRead(slotKeys.get(i), null);
+                                    } else if (type.isInstance(value)) {
+                                        synchronized (found) {
+                                            found.put(slotKeys.get(i), type.cast(value));
+                                        }
+                                    }
+                                }
+                            }))
+                    .then(Mono.fromSupplier(() -> found));
+            return monitoringService.monitorReactive("getAll", bySlot);
+        });
+    }
+
+    public Mono<Boolean> exists(String key) {
+        return Mono.defer(() -> {
+            if (nearCache.getIfPresent(key).isPresent()) {
+                return Mono.just(true);
+            }
+            if (cacheService.isDefinitelyAbsent(key)) {
+                return Mono.just(false);
+            }
+            return monitoringService.monitorReactive("exists", key, reactiveRedisTemplate.hasKey(key))
+                    .defaultIfEmpty(false)
+                    .doOnNext(exists -> {
+                        if (!exists) {
+                            cacheService.afterRead(key, null);
+                        }
+                    });
+        });
+    }
+
+    public Mono<Void> delete(String key) {
+        return monitoringService.monitorReactive("delete", key, reactiveRedisTemplate.delete(key))
+                .doOnSuccess(result -> {
+                    cacheService.afterDelete(key);
+                    log.debug("Deleted key: {}", key);
+                })
+                .then();
+    }
+
+    public Mono<Void> expire(String key, Duration ttl) {
+        return monitoringService.monitorReactive("expire", key, reactiveRedisTemplate.expire(key, ttl))
+                .doOnSuccess(result -> {
+                    nearCache.invalidate(key);
+                    log.debug("Set expiration for key: {} to {}", key, ttl);
+                })
+                .then();
+    }
+
+    private Mono<ServerlessNearCache.Loaded> readWithTtl(String key) {
+        // GET + PTTL juntos para a entrada L1 nunca sobreviver à chave; sem TTL = -1, ausente = -2
+        Mono<Optional<Object>> value = reactiveRedisTemplate.opsForValue().get(key)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+        Mono<Long> ttlMillis = reactiveRedisTemplate.getExpire(key)
+                .map(ttl -> ttl.isZero() ? -1L : ttl.toMillis())
+                .defaultIfEmpty(-2L);
+        return Mono.zip(value, ttlMillis)
+                .map(result -> new ServerlessNearCache.Loaded(result.getT1().orElse(null), result.getT2()));
+    }
+}
@@ -0,0 +1,129 @@
+package com.poc.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PINGs Redis on a jittered schedule over the shared connection and publishes an immutable
+ * snapshot. Health endpoints read the snapshot only, so probes never reach Redis.
+ */
+@Service
+public class RedisHealthSampler {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisHealthSampler.class);
+
+    private final RedisServerlessMonitoringService monitoringService;
+    private final long periodMillis;
+    private final long jitterMillis;
+    private final int failureThreshold;
+    private final long maxAgeMillis;
+
+    private volatile HealthSnapshot snapshot = HealthSnapshot.initial();
+    private ScheduledExecutorService samplerExecutor;
+
+    public RedisHealthSampler(RedisServerlessMonitoringService monitoringService,
+                              MeterRegistry meterRegistry,
+                              @Value("${cache.health.period:5s}") Duration period,
+                              @Value("${cache.health.jitter:1s}") Duration jitter,
+                              @Value("${cache.health.failure-threshold:2}") int failureThreshold,
+                              @Value("${cache.health.max-age:30s}") Duration maxAge) {
+        this.monitoringService = monitoringService;
+        this.periodMillis = Math.max(1, period.toMillis());
+        this.jitterMillis = Math.max(0, Math.min(jitter.toMillis(), periodMillis - 1));
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.maxAgeMillis = maxAge.toMillis();
+        Gauge.builder("redis.health.consecutive.failures", this, sampler -> sampler.snapshot.consecutiveFailures())
+                .description("Consecutive failed background PINGs")
+                .register(meterRegistry);
+        Gauge.builder("redis.health.latency", this, sampler -> sampler.snapshot.latencyMillis())
+                .description("Latency of the last successful background PING")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        samplerExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-health-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        samplerExecutor.schedule(this::sampleAndReschedule, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (samplerExecutor != null) {
+            samplerExecutor.shutdownNow();
+        }
+    }
+
+    public HealthSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public boolean isHealthy() {
+        HealthSnapshot current = snapshot;
+        // Snapshot velho significa sampler travado: não reportar UP com dado antigo
+        return current.lastSuccess() != null
+                && current.consecutiveFailures() < failureThreshold
+                && current.sampledAt() != null
+                && Duration.between(current.sampledAt(), Instant.now()).toMillis() <= maxAgeMillis;
+    }
+
+    private void sampleAndReschedule() {
+        try {
+            sample();
+        } finally {
+            if (!samplerExecutor.isShutdown()) {
+                // Jitter evita que todas as tasks ECS pinguem o cluster no mesmo instante
+                long delay = periodMillis + ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1);
+                samplerExecutor.schedule(this::sampleAndReschedule, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void sample() {
+        HealthSnapshot previous = snapshot;
+        long start = System.nanoTime();
+        try {
+            monitoringService.ping();
+            long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Instant now = Instant.now();
+            snapshot = new HealthSnapshot(now, latencyMillis, now, 0, null);
+            if (previous.consecutiveFailures() > 0) {
+                log.info("Redis health recovered after {} failed samples", previous.consecutiveFailures());
+            }
+        } catch (Exception e) {
+            int failures = previous.consecutiveFailures() + 1;
+            snapshot = new HealthSnapshot(Instant.now(), previous.latencyMillis(), previous.lastSuccess(),
+                    failures, e.getClass().getSimpleName() + ": " + e.getMessage());
+            if (failures == failureThreshold) {
+                log.warn("Redis health check failed {} times in a row", failures, e);
+            } else {
+                log.debug("Redis health sample failed ({} consecutive)", failures, e);
+            }
+        }
+    }
+
+    public record HealthSnapshot(Instant sampledAt, long latencyMillis, Instant lastSuccess,
+                                 int consecutiveFailures, String lastError) {
+
+        static HealthSnapshot initial() {
+            return new HealthSnapshot(null, -1L, null, 0, null);
+        }
+    }
+}
@@ -5,24 +5,43 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class RedisServerlessMonitoringService {
 
     private static final Logger log = LoggerFactory.getLogger(RedisServerlessMonitoringService.class);
+    private static final String[] BATCH_SIZE_BUCKETS = {"1", "2-10", "11-50", "51-200", "200+"};
+    private static final String PREFIX_OTHER = "other";
+    private static final String PREFIX_NONE = "none";
 
     private final RedisTemplate<String, Object> redisTemplate;
     private final Counter connectionSuccessCounter;
     private final Counter connectionFailureCounter;
     private final Timer operationTimer;
     private final MeterRegistry meterRegistry;
+    // Só prefixos configurados viram tag; o resto cai em "other" para manter a cardinalidade limitada
+    private final String[] keyPrefixes;
+    private final Map<String, OutcomeTimers[]> operationTimers = new ConcurrentHashMap<>();
+    private final Map<String, OutcomeTimers[]> batchTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> eventCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> staleCounters = new ConcurrentHashMap<>();
 
     public RedisServerlessMonitoringService(RedisTemplate<String, Object> redisTemplate, 
-                                          MeterRegistry meterRegistry) {
+                                          MeterRegistry meterRegistry,
+                                          @Value("${cache.monitoring.key-prefixes:}") String[] keyPrefixes) {
         this.redisTemplate = redisTemplate;
         this.meterRegistry = meterRegistry;
+        this.keyPrefixes = keyPrefixes;
         this.connectionSuccessCounter = Counter.builder("redis.connection.success")
                 .description("Successful Redis connections")
                 .register(meterRegistry);
@@ -35,37 +54,160 @@ public class RedisServerlessMonitoringService {
     }
 
     public boolean testConnection() {
-        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            String result = redisTemplate.getConnectionFactory()
-                    .getConnection()
-                    .ping();
-            
-            connectionSuccessCounter.increment();
+            String result = ping();
             log.debug("Redis ping successful: {}", result);
             return true;
         } catch (Exception e) {
-            connectionFailureCounter.increment();
             log.warn("Redis connection test failed", e);
             return false;
+        }
+    }
+
+    // PING pela conexão compartilhada do template (antes abria conexão nova a cada chamada e nunca fechava)
+    public String ping() {
+        long start = System.nanoTime();
+        try {
+            String result = redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+            connectionSuccessCounter.increment();
+            return result;
+        } catch (RuntimeException e) {
+            connectionFailureCounter.increment();
+            throw e;
         } finally {
-            sample.stop(operationTimer);
+            operationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
     public <T> T executeWithMonitoring(String operation, RedisOperation<T> redisOperation) {
-        Timer.Sample sample = Timer.start(meterRegistry);
+        return execute(operationTimers(operation, keyPrefixes.length + 1), operation, redisOperation);
+    }
+
+    public <T> T executeWithMonitoring(String operation, String key, RedisOperation<T> redisOperation) {
+        return execute(operationTimers(operation, prefixIndex(key)), operation, redisOperation);
+    }
+
+    public <T> T executeWithMonitoring(String operation, int batchSize, RedisOperation<T> redisOperation) {
+        return execute(batchTimers(operation, batchSizeBucket(batchSize)), operation, redisOperation);
+    }
+
+    public void recordCacheEvent(String event) {
+        Counter counter = eventCounters.get(event);
+        if (counter == null) {
+            counter = eventCounters.computeIfAbsent(event, name -> Counter.builder("redis.cache.events")
+                    .tag("event", name)
+                    .register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    public void recordStaleServe(String reason) {
+        Counter counter = staleCounters.get(reason);
+        if (counter == null) {
+            counter = staleCounters.computeIfAbsent(reason, name -> Counter.builder("redis.cache.stale.served")
+                    .description("Values served past their soft TTL or after a Redis/loader error")
+                    .tag("reason", name)
+                    .register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    public <T> Mono<T> monitorReactive(String operation, Mono<T> redisOperation) {
+        return monitorReactive(operationTimers(operation, keyPrefixes.length + 1), operation, redisOperation);
+    }
+
+    public <T> Mono<T> monitorReactive(String operation, String key, Mono<T> redisOperation) {
+        return monitorReactive(operationTimers(operation, prefixIndex(key)), operation, redisOperation);
+    }
+
+    private <T> Mono<T> monitorReactive(OutcomeTimers timers, String operation, Mono<T> redisOperation) {
+        // Timer starts on subscription, not on assembly, so deferred pipelines are measured correctly
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return redisOperation
+                    .doOnSuccess(result -> timers.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(e -> {
+                        timers.failure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        log.error("Redis operation '{}' failed", operation, e);
+                    });
+        });
+    }
+
+    private <T> T execute(OutcomeTimers timers, String operation, RedisOperation<T> redisOperation) {
+        // Caminho quente: timers já resolvidos, sem builder/tags/Sample por chamada
+        long start = System.nanoTime();
         try {
             T result = redisOperation.execute();
-            log.debug("Redis operation '{}' completed successfully", operation);
+            // Sem log por operação: o timer de sucesso já registra cada chamada
+            timers.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             return result;
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
+            timers.failure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             log.error("Redis operation '{}' failed", operation, e);
             throw e;
-        } finally {
-            sample.stop(Timer.builder("redis.operation")
-                    .tag("operation", operation)
-                    .register(meterRegistry));
+        }
+    }
+
+    private OutcomeTimers operationTimers(String operation, int prefixIndex) {
+        OutcomeTimers[] byPrefix = operationTimers.get(operation);
+        if (byPrefix == null) {
+            byPrefix = operationTimers.computeIfAbsent(operation, name -> new OutcomeTimers[keyPrefixes.length + 2]);
+        }
+        OutcomeTimers timers = byPrefix[prefixIndex];
+        if (timers == null) {
+            String prefix = prefixIndex < keyPrefixes.length ? keyPrefixes[prefixIndex]
+                    : prefixIndex == keyPrefixes.length ? PREFIX_OTHER : PREFIX_NONE;
+            // Corrida benigna: o registry devolve o mesmo Timer para as mesmas tags
+            timers = new OutcomeTimers(meterRegistry, "redis.operation", "operation", operation, "key.prefix", prefix);
+            byPrefix[prefixIndex] = timers;
+        }
+        return timers;
+    }
+
+    private OutcomeTimers batchTimers(String operation, int bucketIndex) {
+        OutcomeTimers[] byBucket = batchTimers.get(operation);
+        if (byBucket == null) {
+            byBucket = batchTimers.computeIfAbsent(operation, name -> new OutcomeTimers[BATCH_SIZE_BUCKETS.length]);
+        }
+        OutcomeTimers timers = byBucket[bucketIndex];
+        if (timers == null) {
+            timers = new OutcomeTimers(meterRegistry, "redis.operation.batch",
+                    "operation", operation, "batch.size", BATCH_SIZE_BUCKETS[bucketIndex]);
+            byBucket[bucketIndex] = timers;
+        }
+        return timers;
+    }
+
+    private int prefixIndex(String key) {
+        if (key == null) {
+            return keyPrefixes.length + 1;
+        }
+        for (int i = 0; i < keyPrefixes.length; i++) {
+            String prefix = keyPrefixes[i];
+            if (key.length() > prefix.length() && key.startsWith(prefix) && key.charAt(prefix.length()) == ':') {
+                return i;
+            }
+        }
+        return keyPrefixes.length;
+    }
+
+    // Bucketed so the tag stays low-cardinality regardless of caller batch sizes
+    private static int batchSizeBucket(int batchSize) {
+        if (batchSize <= 1) return 0;
+        if (batchSize <= 10) return 1;
+        if (batchSize <= 50) return 2;
+        if (batchSize <= 200) return 3;
+        return 4;
+    }
+
+    // Histograma/SLO/percentis vêm de management.metrics.distribution.*.redis.operation via MeterFilter do Boot
+    private static final class OutcomeTimers {
+        private final Timer success;
+        private final Timer failure;
+
+        private OutcomeTimers(MeterRegistry registry, String name, String... tags) {
+            this.success = Timer.builder(name).tags(tags).tag("outcome", "success").register(registry);
+            this.failure = Timer.builder(name).tags(tags).tag("outcome", "failure").register(registry);
         }
     }
 
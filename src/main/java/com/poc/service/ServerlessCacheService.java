@@ -1,27 +1,120 @@
 package com.poc.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.cluster.SlotHash;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 public class ServerlessCacheService {
 
     private static final Logger log = LoggerFactory.getLogger(ServerlessCacheService.class);
     private static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+    private static final String LEASE_SUFFIX = ":lease";
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
 
     private final RedisTemplate<String, Object> redisTemplate;
     private final RedisServerlessMonitoringService monitoringService;
+    private final ServerlessNearCache nearCache;
+    private final ServerlessMissFilter missFilter;
+    private final HotKeyTracker hotKeyTracker;
+    private final RedisHealthSampler healthSampler;
+    private final Map<String, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+    private final Cache<String, Long> loadDurations = Caffeine.newBuilder().maximumSize(10_000).build();
+    private final Cache<String, LastKnown> lastKnownValues;
+    private final ExecutorService refreshExecutor;
+    private final boolean staleOnErrorEnabled;
+    private final long maxStalenessMillis;
+
+    @Value("${cache.loader.lease.enabled:false}")
+    private boolean leaseEnabled;
+
+    @Value("${cache.loader.lease.ttl:5s}")
+    private Duration leaseTtl;
+
+    @Value("${cache.loader.lease.wait:2s}")
+    private Duration leaseWait;
+
+    @Value("${cache.loader.early-refresh.beta:1.0}")
+    private double earlyRefreshBeta;
+
+    @Value("${cache.loader.early-refresh.default-delta:100ms}")
+    private Duration defaultLoadDelta;
 
     public ServerlessCacheService(RedisTemplate<String, Object> redisTemplate,
-                                RedisServerlessMonitoringService monitoringService) {
+                                RedisServerlessMonitoringService monitoringService,
+                                ServerlessNearCache nearCache,
+                                ServerlessMissFilter missFilter,
+                                HotKeyTracker hotKeyTracker,
+                                RedisHealthSampler healthSampler,
+                                @Value("${cache.stale.on-error.enabled:true}") boolean staleOnErrorEnabled,
+                                @Value("${cache.stale.on-error.max-staleness:5m}") Duration maxStaleness,
+                                @Value("${cache.stale.on-error.max-size:10000}") long maxLastKnown,
+                                @Value("${cache.stale.refresh.threads:4}") int refreshThreads,
+                                @Value("${cache.stale.refresh.queue:1000}") int refreshQueue) {
         this.redisTemplate = redisTemplate;
         this.monitoringService = monitoringService;
+        this.nearCache = nearCache;
+        this.missFilter = missFilter;
+        this.hotKeyTracker = hotKeyTracker;
+        this.healthSampler = healthSampler;
+        this.staleOnErrorEnabled = staleOnErrorEnabled;
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.lastKnownValues = Caffeine.newBuilder()
+                .maximumSize(maxLastKnown)
+                .expireAfterWrite(maxStaleness)
+                .build();
+        AtomicInteger threadCount = new AtomicInteger();
+        // Fila limitada: refresh descartado quando saturado, o valor stale continua sendo servido
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(refreshQueue),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
     }
 
     public void put(String key, Object value) {
@@ -29,49 +122,469 @@ public class ServerlessCacheService {
     }
 
     public void put(String key, Object value, Duration ttl) {
-        monitoringService.executeWithMonitoring("put", () -> {
-            redisTemplate.opsForValue().set(key, value, ttl);
+        monitoringService.executeWithMonitoring("put", key, () -> {
+            if (missFilter.tracksInBloom(key)) {
+                pipelined(ops -> {
+                    ops.opsForValue().set(key, value, ttl);
+                    missFilter.recordWrite(ops, key);
+                });
+            } else {
+                redisTemplate.opsForValue().set(key, value, ttl);
+                missFilter.recordWrite(key);
+            }
+            invalidateLocal(key);
+            remember(key, value);
             log.debug("Cached value for key: {} with TTL: {}", key, ttl);
             return null;
         });
     }
 
     public <T> Optional<T> get(String key, Class<T> type) {
-        return monitoringService.executeWithMonitoring("get", () -> {
-            Object value = redisTemplate.opsForValue().get(key);
-            if (value != null && type.isInstance(value)) {
-                log.debug("Cache hit for key: {}", key);
-                return Optional.of(type.cast(value));
-            }
-            log.debug("Cache miss for key: {}", key);
-            return Optional.<T>empty();
-        });
+        hotKeyTracker.recordRead(key);
+        Optional<Object> local = nearCache.getIfPresent(key);
+        if (local.isEmpty()) {
+            local = hotKeyTracker.getLocalCopy(key);
+        }
+        if (local.isPresent()) {
+            log.debug("Local hit for key: {}", key);
+            return local.filter(type::isInstance).map(type::cast);
+        }
+        if (missFilter.isDefinitelyAbsent(key)) {
+            return Optional.empty();
+        }
+        try {
+            return monitoringService.executeWithMonitoring("get", key, () -> {
+                Object value = nearCache.isActive()
+                        ? nearCache.load(key, this::readWithTtl).value()
+                        : redisTemplate.opsForValue().get(key);
+                if (value != null && type.isInstance(value)) {
+                    log.debug("Cache hit for key: {}", key);
+                    remember(key, value);
+                    hotKeyTracker.storeLocalCopy(key, value);
+                    return Optional.of(type.cast(value));
+                }
+                log.debug("Cache miss for key: {}", key);
+                if (value == null) {
+                    missFilter.recordMiss(key);
+                }
+                return Optional.<T>empty();
+            });
+        } catch (RuntimeException e) {
+            return Optional.of(lastKnownOrThrow(key, type, e));
+        }
     }
 
     public boolean exists(String key) {
-        return monitoringService.executeWithMonitoring("exists", () -> {
+        if (nearCache.getIfPresent(key).isPresent()) {
+            return true;
+        }
+        if (missFilter.isDefinitelyAbsent(key)) {
+            return false;
+        }
+        return monitoringService.executeWithMonitoring("exists", key, () -> {
             Boolean exists = redisTemplate.hasKey(key);
+            if (!Boolean.TRUE.equals(exists)) {
+                missFilter.recordMiss(key);
+            }
             return exists != null && exists;
         });
     }
 
     public void delete(String key) {
-        monitoringService.executeWithMonitoring("delete", () -> {
+        monitoringService.executeWithMonitoring("delete", key, () -> {
             redisTemplate.delete(key);
+            invalidateLocal(key);
+            lastKnownValues.invalidate(key);
             log.debug("Deleted key: {}", key);
             return null;
         });
     }
 
     public void expire(String key, Duration ttl) {
-        monitoringService.executeWithMonitoring("expire", () -> {
+        monitoringService.executeWithMonitoring("expire", key, () -> {
             redisTemplate.expire(key, ttl);
+            invalidateLocal(key);
             log.debug("Set expiration for key: {} to {}", key, ttl);
             return null;
         });
     }
 
+    public long deleteByPrefix(String prefix) {
+        return monitoringService.executeWithMonitoring("deleteByPrefix", () -> {
+            // SCAN em lotes em vez de KEYS para não bloquear o servidor
+            ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(500).build();
+            List<String> batch = new ArrayList<>(500);
+            long deleted = 0;
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == 500) {
+                        deleted += deleteBatch(batch);
+                    }
+                }
+            }
+            deleted += deleteBatch(batch);
+            log.debug("Deleted {} keys with prefix: {}", deleted, prefix);
+            return deleted;
+        });
+    }
+
+    public <T> T getOrLoad(String key, Class<T> type, Duration ttl, Supplier<T> loader) {
+        Optional<Object> local = nearCache.getIfPresent(key);
+        if (local.isPresent() && type.isInstance(local.get())) {
+            return type.cast(local.get());
+        }
+        if (missFilter.isDefinitelyAbsent(key)) {
+            return loadSingleFlight(key, type, ttl, loader, null);
+        }
+        ServerlessNearCache.Loaded cached = monitoringService.executeWithMonitoring("getOrLoad", key, () ->
+                nearCache.isActive() ? nearCache.load(key, this::readWithTtl) : readWithTtl(key));
+        if (cached.value() != null && type.isInstance(cached.value())) {
+            if (shouldRefreshEarly(key, cached.ttlMillis())) {
+                // XFetch: this caller refreshes ahead of expiry, everyone else keeps the current value
+                monitoringService.recordCacheEvent("early_refresh");
+                return loadSingleFlight(key, type, ttl, loader, type.cast(cached.value()));
+            }
+            return type.cast(cached.value());
+        }
+        return loadSingleFlight(key, type, ttl, loader, null);
+    }
+
+    public <T> T getOrLoad(String key, Class<T> type, Duration softTtl, Duration hardTtl, Supplier<T> loader) {
+        Optional<Object> local = nearCache.getIfPresent(key);
+        if (local.isPresent() && type.isInstance(local.get())) {
+            return type.cast(local.get());
+        }
+        if (missFilter.isDefinitelyAbsent(key)) {
+            try {
+                return loadSingleFlight(key, type, hardTtl, loader, null);
+            } catch (RuntimeException e) {
+                return lastKnownOrThrow(key, type, e);
+            }
+        }
+        ServerlessNearCache.Loaded cached;
+        try {
+            cached = monitoringService.executeWithMonitoring("getOrLoad", key, () ->
+                    nearCache.isActive() ? nearCache.load(key, this::readWithTtl) : readWithTtl(key));
+        } catch (RuntimeException e) {
+            return lastKnownOrThrow(key, type, e);
+        }
+        if (cached.value() != null && type.isInstance(cached.value())) {
+            T value = type.cast(cached.value());
+            remember(key, value);
+            // Key TTL is the hard TTL; once less than (hard - soft) remains the entry is past its soft TTL
+            Long ttlMillis = cached.ttlMillis();
+            if (ttlMillis != null && ttlMillis >= 0 && ttlMillis <= hardTtl.minus(softTtl).toMillis()) {
+                monitoringService.recordStaleServe("soft_expired");
+                refreshInBackground(key, type, hardTtl, loader, value);
+            }
+            return value;
+        }
+        try {
+            return loadSingleFlight(key, type, hardTtl, loader, null);
+        } catch (RuntimeException e) {
+            return lastKnownOrThrow(key, type, e);
+        }
+    }
+
+    public <T> Map<String, T> getAll(Collection<String> keys, Class<T> type) {
+        Map<String, T> found = new LinkedHashMap<>();
+        List<String> remoteKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Optional<Object> local = nearCache.getIfPresent(key);
+            if (local.isPresent()) {
+                local.filter(type::isInstance).ifPresent(value -> found.put(key, type.cast(value)));
+            } else if (!missFilter.isDefinitelyAbsent(key)) {
+                remoteKeys.add(key);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return found;
+        }
+        return monitoringService.executeWithMonitoring("getAll", remoteKeys.size(), () -> {
+            // Serverless rejeita MGET com chaves em slots diferentes (CROSSSLOT): um MGET por slot, num só pipeline
+            List<List<String>> slots = groupBySlot(remoteKeys);
+            List<Object> results = pipelined(ops -> slots.forEach(slotKeys -> ops.opsForValue().multiGet(slotKeys)));
+            for (int slot = 0; slot < slots.size(); slot++) {
+                List<String> slotKeys = slots.get(slot);
+                List<?> values = (List<?>) results.get(slot);
+                for (int i = 0; i < slotKeys.size(); i++) {
+                    Object value = values != null ? values.get(i) : null;
+                    if (value == null) {
+                        missFilter.recordMiss(slotKeys.get(i));
+                    } else if (type.isInstance(value)) {
+                        found.put(slotKeys.get(i), type.cast(value));
+                    }
+                }
+            }
+            log.debug("MGET {} keys in {} slots, {} hits", remoteKeys.size(), slots.size(), found.size());
+            return found;
+        });
+    }
+
+    public void putAll(Map<String, ?> entries) {
+        putAll(entries, DEFAULT_TTL);
+    }
+
+    public void putAll(Map<String, ?> entries, Duration ttl) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        monitoringService.executeWithMonitoring("putAll", entries.size(), () -> {
+            // MSET has no TTL, so each entry is a SET PX flushed in a single pipeline
+            pipelined(ops -> entries.forEach((key, value) -> {
+                ops.opsForValue().set(key, value, ttl);
+                missFilter.recordWrite(ops, key);
+            }));
+            entries.forEach((key, value) -> {
+                invalidateLocal(key);
+                remember(key, value);
+            });
+            log.debug("Cached {} values with TTL: {}", entries.size(), ttl);
+            return null;
+        });
+    }
+
+    public void deleteAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        monitoringService.executeWithMonitoring("deleteAll", keys.size(), () -> {
+            unlinkBySlot(keys);
+            keys.forEach(this::invalidateLocal);
+            lastKnownValues.invalidateAll(keys);
+            log.debug("Deleted {} keys", keys.size());
+            return null;
+        });
+    }
+
+    public void expireAll(Collection<String> keys, Duration ttl) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        monitoringService.executeWithMonitoring("expireAll", keys.size(), () -> {
+            pipelined(ops -> keys.forEach(key -> ops.expire(key, ttl)));
+            keys.forEach(this::invalidateLocal);
+            log.debug("Set expiration for {} keys to {}", keys.size(), ttl);
+            return null;
+        });
+    }
+
+    // Lê o snapshot do sampler em background: nenhum I/O no caminho dos probes
     public boolean isHealthy() {
-        return monitoringService.testConnection();
+        return healthSampler.isHealthy();
+    }
+
+    public RedisHealthSampler.HealthSnapshot healthSnapshot() {
+        return healthSampler.snapshot();
+    }
+
+    // Bookkeeping compartilhado com o ReactiveServerlessCacheService: os dois stacks se comportam igual
+
+    Optional<Object> localValue(String key) {
+        hotKeyTracker.recordRead(key);
+        Optional<Object> local = nearCache.getIfPresent(key);
+        return local.isPresent() ? local : hotKeyTracker.getLocalCopy(key);
+    }
+
+    boolean isDefinitelyAbsent(String key) {
+        return missFilter.isDefinitelyAbsent(key);
+    }
+
+    void afterRead(String key, Object value) {
+        if (value == null) {
+            missFilter.recordMiss(key);
+            return;
+        }
+        remember(key, value);
+        hotKeyTracker.storeLocalCopy(key, value);
+    }
+
+    void afterWrite(String key, Object value) {
+        invalidateLocal(key);
+        remember(key, value);
+    }
+
+    void afterDelete(String key) {
+        invalidateLocal(key);
+        lastKnownValues.invalidate(key);
+    }
+
+    private void invalidateLocal(String key) {
+        nearCache.invalidate(key);
+        hotKeyTracker.invalidate(key);
+    }
+
+    private long deleteBatch(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        long deleted = unlinkBySlot(keys);
+        keys.forEach(key -> {
+            invalidateLocal(key);
+            lastKnownValues.invalidate(key);
+        });
+        keys.clear();
+        return deleted;
+    }
+
+    private long unlinkBySlot(Collection<String> keys) {
+        // Um UNLINK por slot (sem CROSSSLOT), todos no mesmo pipeline
+        List<Object> results = pipelined(ops -> groupBySlot(keys).forEach(ops::unlink));
+        return results.stream().mapToLong(result -> result instanceof Long count ? count : 0).sum();
+    }
+
+    // Compartilhado com o ReactiveServerlessCacheService
+    static List<List<String>> groupBySlot(Collection<String> keys) {
+        Map<Integer, List<String>> bySlot = new HashMap<>();
+        keys.forEach(key -> bySlot.computeIfAbsent(SlotHash.getSlot(key), slot -> new ArrayList<>()).add(key));
+        return new ArrayList<>(bySlot.values());
+    }
+
+    private <T> void refreshInBackground(String key, Class<T> type, Duration ttl, Supplier<T> loader, T current) {
+        if (inFlightLoads.containsKey(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    loadSingleFlight(key, type, ttl, loader, current);
+                } catch (RuntimeException e) {
+                    monitoringService.recordCacheEvent("refresh_failed");
+                    log.warn("Background refresh failed for key: {}", key, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            monitoringService.recordCacheEvent("refresh_rejected");
+        }
+    }
+
+    private void remember(String key, Object value) {
+        if (staleOnErrorEnabled && value != null) {
+            lastKnownValues.put(key, new LastKnown(value, System.currentTimeMillis()));
+        }
+    }
+
+    <T> T lastKnownOrThrow(String key, Class<T> type, RuntimeException error) {
+        LastKnown lastKnown = staleOnErrorEnabled ? lastKnownValues.getIfPresent(key) : null;
+        if (lastKnown != null
+                && type.isInstance(lastKnown.value())
+                && System.currentTimeMillis() - lastKnown.storedAt() <= maxStalenessMillis) {
+            monitoringService.recordStaleServe("error");
+            log.warn("Serving last known value for key: {} after error: {}", key, error.getMessage());
+            return type.cast(lastKnown.value());
+        }
+        throw error;
+    }
+
+    private boolean shouldRefreshEarly(String key, Long ttlMillis) {
+        if (ttlMillis == null || ttlMillis < 0) {
+            return false;
+        }
+        Long measured = loadDurations.getIfPresent(key);
+        long deltaMillis = measured != null ? measured : defaultLoadDelta.toMillis();
+        return refreshEarly(ttlMillis, deltaMillis, earlyRefreshBeta, ThreadLocalRandom.current().nextDouble());
+    }
+
+    // Refresh when ttl <= delta * beta * -ln(1 - random): rare far from expiry, near-certain at the end
+    static boolean refreshEarly(long ttlMillis, long deltaMillis, double beta, double random) {
+        return ttlMillis <= deltaMillis * beta * -Math.log(1.0 - random);
+    }
+
+    private <T> T loadSingleFlight(String key, Class<T> type, Duration ttl, Supplier<T> loader, T current) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlightLoads.putIfAbsent(key, mine);
+        if (existing != null) {
+            monitoringService.recordCacheEvent("load_coalesced");
+            if (current != null) {
+                return current;
+            }
+            try {
+                return type.cast(existing.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        try {
+            T value = loadWithLease(key, type, ttl, loader, current);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, mine);
+        }
+    }
+
+    private <T> T loadWithLease(String key, Class<T> type, Duration ttl, Supplier<T> loader, T current) {
+        if (!leaseEnabled) {
+            return loadAndStore(key, ttl, loader);
+        }
+        String leaseKey = key + LEASE_SUFFIX;
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(leaseKey, token, leaseTtl);
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                return loadAndStore(key, ttl, loader);
+            } finally {
+                redisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(leaseKey), token);
+            }
+        }
+        monitoringService.recordCacheEvent("lease_contended");
+        if (current != null) {
+            // Another task is already refreshing this key
+            return current;
+        }
+        long deadline = System.nanoTime() + leaseWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            Object value = redisTemplate.opsForValue().get(key);
+            if (value != null && type.isInstance(value)) {
+                return type.cast(value);
+            }
+            try {
+                Thread.sleep(25);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.debug("Lease wait for key {} timed out, loading locally", key);
+        return loadAndStore(key, ttl, loader);
+    }
+
+    private <T> T loadAndStore(String key, Duration ttl, Supplier<T> loader) {
+        long start = System.nanoTime();
+        T value = loader.get();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        loadDurations.asMap().merge(key, Math.max(1, elapsedMillis), (previous, latest) -> (previous * 7 + latest) / 8);
+        monitoringService.recordCacheEvent("load");
+        if (value != null) {
+            put(key, value, ttl);
+        }
+        return value;
+    }
+
+    private ServerlessNearCache.Loaded readWithTtl(String key) {
+        // GET + PTTL in one round trip so the L1 entry never outlives the Redis key
+        List<Object> results = pipelined(ops -> {
+            ops.opsForValue().get(key);
+            ops.getExpire(key, TimeUnit.MILLISECONDS);
+        });
+        return new ServerlessNearCache.Loaded(results.get(0), (Long) results.get(1));
+    }
+
+    private List<Object> pipelined(Consumer<RedisOperations<String, Object>> commands) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                commands.accept((RedisOperations<String, Object>) operations);
+                return null;
+            }
+        });
+    }
+
+    private record LastKnown(Object value, long storedAt) {
     }
 }
@@ -0,0 +1,327 @@
+package com.poc.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.poc.cache.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ReactiveRedisOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Short-circuits guaranteed misses: an opt-in negative cache for confirmed misses and
+ * per-namespace Bloom filters mirrored from Redis bitmaps ({@code bloom:<namespace>}).
+ * Both are kept current by client-tracking invalidations, and the Bloom filters are only
+ * trusted while tracking is active, since that is what reports writes from other tasks.
+ * A namespace's filter only short-circuits reads once its bitmap has been backfilled from the
+ * keys already in Redis ({@code bloom:<namespace>:backfilled}); writes that bypass
+ * {@link #recordWrite} are patched into the bitmap when their invalidation arrives.
+ */
+@Service
+public class ServerlessMissFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerlessMissFilter.class);
+    private static final String BLOOM_KEY_PREFIX = "bloom:";
+    private static final String BACKFILLED_SUFFIX = ":backfilled";
+    private static final String BACKFILL_LOCK_SUFFIX = ":backfill-lock";
+    private static final int BACKFILL_BATCH = 1000;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ServerlessNearCache nearCache;
+    private final boolean negativeEnabled;
+    private final Cache<String, Boolean> negativeCache;
+    private final Map<String, BloomFilter> bloomFilters = new HashMap<>();
+    private final Duration syncPeriod;
+    private final boolean backfillEnabled;
+    private final Set<String> trustedNamespaces = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingRepairs = ConcurrentHashMap.newKeySet();
+    private final Counter negativeHitCounter;
+    private final Counter bloomAbsentCounter;
+
+    private ScheduledExecutorService syncExecutor;
+
+    public ServerlessMissFilter(RedisTemplate<String, Object> redisTemplate,
+                                ServerlessNearCache nearCache,
+                                MeterRegistry meterRegistry,
+                                @Value("${cache.negative.enabled:false}") boolean negativeEnabled,
+                                @Value("${cache.negative.ttl:5s}") Duration negativeTtl,
+                                @Value("${cache.negative.max-size:10000}") long negativeMaxSize,
+                                @Value("${cache.bloom.namespaces:}") String[] bloomNamespaces,
+                                @Value("${cache.bloom.expected-insertions:100000}") long expectedInsertions,
+                                @Value("${cache.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                                @Value("${cache.bloom.sync-period:60s}") Duration syncPeriod,
+                                @Value("${cache.bloom.backfill:false}") boolean backfillEnabled) {
+        this.redisTemplate = redisTemplate;
+        this.nearCache = nearCache;
+        this.negativeEnabled = negativeEnabled;
+        this.syncPeriod = syncPeriod;
+        this.backfillEnabled = backfillEnabled;
+        this.negativeCache = Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize)
+                .expireAfterWrite(negativeTtl)
+                .build();
+        for (String namespace : bloomNamespaces) {
+            if (!nearCache.tracks(namespace + ":")) {
+                // Sem invalidações para o namespace o filtro daria falsos "ausente"
+                log.warn("Bloom namespace '{}' is not covered by cache.near.tracking-prefixes, ignoring it", namespace);
+                continue;
+            }
+            BloomFilter filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+            bloomFilters.put(namespace, filter);
+            Gauge.builder("redis.bloom.memory.bytes", filter, BloomFilter::memoryBytes)
+                    .tag("namespace", namespace)
+                    .register(meterRegistry);
+            Gauge.builder("redis.bloom.fpp.configured", () -> falsePositiveRate)
+                    .tag("namespace", namespace)
+                    .register(meterRegistry);
+            Gauge.builder("redis.bloom.fpp.estimated", filter, BloomFilter::estimatedFalsePositiveRate)
+                    .tag("namespace", namespace)
+                    .register(meterRegistry);
+        }
+        this.negativeHitCounter = Counter.builder("redis.missfilter.short.circuit")
+                .tag("source", "negative_cache")
+                .register(meterRegistry);
+        this.bloomAbsentCounter = Counter.builder("redis.missfilter.short.circuit")
+                .tag("source", "bloom")
+                .register(meterRegistry);
+        Gauge.builder("redis.negative.size", negativeCache, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        nearCache.addInvalidationListener(this::onTrackingInvalidation);
+        if (bloomFilters.isEmpty()) {
+            return;
+        }
+        bloomFilters.forEach((namespace, filter) -> log.info("Bloom filter for namespace '{}': {} bits, {} hashes",
+                namespace, filter.bitSize(), filter.hashFunctions()));
+        syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bloom-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncExecutor.scheduleWithFixedDelay(this::syncFromRedis, 0, syncPeriod.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+        }
+    }
+
+    public boolean isDefinitelyAbsent(String key) {
+        if (negativeEnabled && negativeCache.getIfPresent(key) != null) {
+            negativeHitCounter.increment();
+            return true;
+        }
+        BloomFilter filter = bloomFilterFor(key);
+        if (filter != null && trustedNamespaces.contains(namespaceOf(key)) && nearCache.isActive()
+                && !filter.mightContain(key)) {
+            bloomAbsentCounter.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public void recordMiss(String key) {
+        if (negativeEnabled) {
+            negativeCache.put(key, Boolean.TRUE);
+        }
+    }
+
+    public boolean tracksInBloom(String key) {
+        return bloomFilterFor(key) != null;
+    }
+
+    // Queues the SETBITs on the caller's pipeline so a write costs no extra round trip
+    public void recordWrite(RedisOperations<String, Object> operations, String key) {
+        negativeCache.invalidate(key);
+        BloomFilter filter = bloomFilterFor(key);
+        if (filter == null) {
+            return;
+        }
+        String bloomKey = BLOOM_KEY_PREFIX + namespaceOf(key);
+        for (long offset : filter.offsets(key)) {
+            operations.opsForValue().setBit(bloomKey, offset, true);
+        }
+        filter.add(key);
+    }
+
+    // Variante reativa: os SETBITs seguem na conexão compartilhada sem bloquear o event loop
+    public Mono<Void> recordWrite(ReactiveRedisOperations<String, Object> operations, String key) {
+        negativeCache.invalidate(key);
+        BloomFilter filter = bloomFilterFor(key);
+        if (filter == null) {
+            return Mono.empty();
+        }
+        String bloomKey = BLOOM_KEY_PREFIX + namespaceOf(key);
+        return Flux.fromArray(LongStream.of(filter.offsets(key)).boxed().toArray(Long[]::new))
+                .flatMap(offset -> operations.opsForValue().setBit(bloomKey, offset, true))
+                .then(Mono.fromRunnable(() -> filter.add(key)));
+    }
+
+    public void recordWrite(String key) {
+        negativeCache.invalidate(key);
+        BloomFilter filter = bloomFilterFor(key);
+        if (filter != null) {
+            filter.add(key);
+        }
+    }
+
+    private void syncFromRedis() {
+        bloomFilters.forEach((namespace, filter) -> {
+            try {
+                String bloomKey = BLOOM_KEY_PREFIX + namespace;
+                // Sem backfill o bitmap não conhece chaves anteriores ao filtro: "ausente" não seria confiável
+                if (!Boolean.TRUE.equals(redisTemplate.hasKey(bloomKey + BACKFILLED_SUFFIX))) {
+                    trustedNamespaces.remove(namespace);
+                    if (!backfillEnabled || !backfill(namespace, filter)) {
+                        return;
+                    }
+                }
+                byte[] rawKey = bloomKey.getBytes(StandardCharsets.UTF_8);
+                // Bitmap lido cru, sem passar pelo value serializer
+                byte[] bitmap = redisTemplate.execute((RedisCallback<byte[]>) connection -> get(connection, rawKey));
+                if (bitmap != null) {
+                    filter.merge(bitmap);
+                }
+                trustedNamespaces.add(namespace);
+            } catch (Exception e) {
+                log.warn("Bloom filter sync from Redis failed for namespace '{}'", namespace, e);
+            }
+        });
+    }
+
+    private boolean backfill(String namespace, BloomFilter filter) {
+        String bloomKey = BLOOM_KEY_PREFIX + namespace;
+        // Uma task por vez faz o SCAN; as outras só passam a confiar quando o marcador aparecer
+        Boolean acquired = redisTemplate.opsForValue()
+                .setIfAbsent(bloomKey + BACKFILL_LOCK_SUFFIX, "1", Duration.ofMinutes(10));
+        if (!Boolean.TRUE.equals(acquired)) {
+            return false;
+        }
+        long keys = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(namespace + ":*").count(BACKFILL_BATCH).build();
+        List<String> batch = new ArrayList<>(BACKFILL_BATCH);
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == BACKFILL_BATCH) {
+                    keys += setBits(bloomKey, filter, batch);
+                }
+            }
+        }
+        keys += setBits(bloomKey, filter, batch);
+        redisTemplate.opsForValue().set(bloomKey + BACKFILLED_SUFFIX, "1");
+        redisTemplate.delete(bloomKey + BACKFILL_LOCK_SUFFIX);
+        log.info("Backfilled Bloom filter for namespace '{}' from {} existing keys", namespace, keys);
+        return true;
+    }
+
+    private int setBits(String bloomKey, BloomFilter filter, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (String key : keys) {
+                    for (long offset : filter.offsets(key)) {
+                        ops.opsForValue().setBit(bloomKey, offset, true);
+                    }
+                }
+                return null;
+            }
+        });
+        int count = keys.size();
+        keys.forEach(filter::add);
+        keys.clear();
+        return count;
+    }
+
+    private void repairPending() {
+        // Escritas que não passaram por recordWrite (outros serviços, outro stack): grava os bits no bitmap
+        Map<String, List<String>> byNamespace = new HashMap<>();
+        for (String key : List.copyOf(pendingRepairs)) {
+            pendingRepairs.remove(key);
+            byNamespace.computeIfAbsent(namespaceOf(key), namespace -> new ArrayList<>()).add(key);
+        }
+        byNamespace.forEach((namespace, keys) -> {
+            try {
+                setBits(BLOOM_KEY_PREFIX + namespace, bloomFilters.get(namespace), keys);
+            } catch (Exception e) {
+                // Sem o bit no Redis, uma task nova daria falso "ausente": volta a exigir sync
+                trustedNamespaces.remove(namespace);
+                log.warn("Could not patch Bloom bitmap for namespace '{}'", namespace, e);
+            }
+        });
+    }
+
+    private static byte[] get(RedisConnection connection, byte[] rawKey) {
+        return connection.stringCommands().get(rawKey);
+    }
+
+    private void onTrackingInvalidation(String key) {
+        if (key == null) {
+            // Flush or tracking gap: writes may have been missed, resync before trusting the filters again
+            negativeCache.invalidateAll();
+            if (syncExecutor != null) {
+                trustedNamespaces.clear();
+                syncExecutor.execute(this::syncFromRedis);
+            }
+            return;
+        }
+        // Invalidation means the key was written somewhere: it may exist now
+        BloomFilter filter = bloomFilterFor(key);
+        if (filter != null && !filter.mightContain(key) && syncExecutor != null) {
+            // Bits ausentes localmente podem faltar também no bitmap; corrigidos fora da thread do Lettuce
+            if (pendingRepairs.add(key)) {
+                syncExecutor.execute(this::repairPending);
+            }
+        }
+        recordWrite(key);
+    }
+
+    private BloomFilter bloomFilterFor(String key) {
+        return bloomFilters.isEmpty() ? null : bloomFilters.get(namespaceOf(key));
+    }
+
+    private static String namespaceOf(String key) {
+        int separator = key.indexOf(':');
+        return separator > 0 ? key.substring(0, separator) : key;
+    }
+}
@@ -0,0 +1,362 @@
+package com.poc.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateAdapter;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-process L1 cache in front of ElastiCache, kept coherent through RESP3 client-side
+ * tracking (CLIENT TRACKING ... BCAST). Entries are only served while the tracking
+ * connection is up; on disconnect the whole L1 is dropped. Key prefixes can get their own
+ * bounded region (size and TTL cap), e.g. one per Spring cache, so a busy cache cannot evict
+ * the others.
+ */
+@Service
+public class ServerlessNearCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerlessNearCache.class);
+    private static final long PENDING_TTL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final RedisConnectionFactory connectionFactory;
+    private final boolean enabled;
+    private final long maxTtlNanos;
+    private final String[] trackingPrefixes;
+    private final Cache<String, Entry> cache;
+    private final MeterRegistry meterRegistry;
+    private final List<Region> regions = new CopyOnWriteArrayList<>();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter invalidationCounter;
+    private final List<Consumer<String>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean trackingActive;
+    private StatefulRedisConnection<String, String> trackingConnection;
+
+    public ServerlessNearCache(RedisConnectionFactory connectionFactory,
+                               MeterRegistry meterRegistry,
+                               @Value("${cache.near.enabled:true}") boolean enabled,
+                               @Value("${cache.near.max-size:10000}") long maxSize,
+                               @Value("${cache.near.max-ttl:60s}") Duration maxTtl,
+                               @Value("${cache.near.tracking-prefixes:}") String[] trackingPrefixes) {
+        this.connectionFactory = connectionFactory;
+        this.enabled = enabled;
+        this.maxTtlNanos = maxTtl.toNanos();
+        this.trackingPrefixes = trackingPrefixes;
+        this.meterRegistry = meterRegistry;
+        this.cache = newCache(maxSize);
+        this.hitCounter = Counter.builder("redis.nearcache.hits")
+                .description("Reads served from the in-process near cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("redis.nearcache.misses")
+                .description("Reads that fell through the near cache to Redis")
+                .register(meterRegistry);
+        this.invalidationCounter = Counter.builder("redis.nearcache.invalidations")
+                .description("Keys invalidated by Redis tracking pushes")
+                .register(meterRegistry);
+        Gauge.builder("redis.nearcache.size", cache, Cache::estimatedSize)
+                .description("Entries currently held in the near cache")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void startTracking() {
+        if (!enabled) {
+            log.info("Near cache disabled");
+            return;
+        }
+        if (!(connectionFactory instanceof LettuceConnectionFactory lettuceFactory)) {
+            log.warn("Near cache requires a Lettuce connection factory, running without L1");
+            return;
+        }
+        try {
+            AbstractRedisClient nativeClient = lettuceFactory.getNativeClient();
+            if (!(nativeClient instanceof RedisClient redisClient)) {
+                log.warn("Near cache only supports standalone RedisClient, running without L1");
+                return;
+            }
+            trackingConnection = redisClient.connect(StringCodec.UTF8);
+            trackingConnection.addListener(this::onPushMessage);
+            redisClient.addListener(new RedisConnectionStateAdapter() {
+                @Override
+                public void onRedisConnected(RedisChannelHandler<?, ?> connection, SocketAddress socketAddress) {
+                    if (connection == trackingConnection) {
+                        enableTrackingAsync();
+                    }
+                }
+
+                @Override
+                public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+                    if (connection == trackingConnection) {
+                        trackingActive = false;
+                        evictAllTracked();
+                        log.warn("Near cache tracking connection lost, L1 cleared");
+                    }
+                }
+            });
+            trackingConnection.sync().clientTracking(trackingArgs());
+            trackingActive = true;
+            log.info("Near cache tracking enabled (prefixes: {})", trackingPrefixes.length == 0 ? "all" : List.of(trackingPrefixes));
+        } catch (Exception e) {
+            trackingActive = false;
+            log.warn("Could not enable client tracking, running without L1", e);
+        }
+    }
+
+    @PreDestroy
+    public void stopTracking() {
+        trackingActive = false;
+        if (trackingConnection != null) {
+            trackingConnection.close();
+        }
+    }
+
+    public boolean isActive() {
+        return enabled && trackingActive;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gives keys starting with {@code keyPrefix} their own L1 region, bounded to {@code maxSize}
+     * entries and {@code maxTtl}, instead of sharing the global {@code cache.near.max-size}.
+     */
+    public void registerRegion(String name, String keyPrefix, long maxSize, Duration maxTtl) {
+        if (!tracks(keyPrefix)) {
+            throw new IllegalArgumentException("Near cache region " + name + " (" + keyPrefix
+                    + ") is outside cache.near.tracking-prefixes: invalidations would never reach it");
+        }
+        Region region = new Region(keyPrefix, newCache(maxSize), Math.min(maxTtl.toNanos(), maxTtlNanos));
+        regions.removeIf(existing -> existing.keyPrefix().equals(keyPrefix));
+        regions.add(region);
+        Gauge.builder("redis.nearcache.region.size", region.cache(), Cache::estimatedSize)
+                .description("Entries currently held in a near cache region")
+                .tag("region", name)
+                .register(meterRegistry);
+    }
+
+    public boolean tracks(String keyPrefix) {
+        if (trackingPrefixes.length == 0) {
+            return true;
+        }
+        for (String prefix : trackingPrefixes) {
+            if (keyPrefix.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Optional<Object> getIfPresent(String key) {
+        if (!isActive() || !tracks(key)) {
+            return Optional.empty();
+        }
+        Entry entry = cacheFor(key).getIfPresent(key);
+        if (entry == null || entry.pending) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+        hitCounter.increment();
+        return Optional.of(entry.value);
+    }
+
+    public Loaded load(String key, Function<String, Loaded> loader) {
+        if (!tracks(key)) {
+            // Fora dos prefixos rastreados nenhuma invalidação chegaria: não guarda em L1
+            return loader.apply(key);
+        }
+        // Per-load marker: an invalidation arriving mid-read removes it and the stale value is dropped
+        Cache<String, Entry> target = cacheFor(key);
+        Entry marker = new Entry(null, PENDING_TTL_NANOS, true);
+        target.put(key, marker);
+        Loaded loaded = null;
+        try {
+            loaded = loader.apply(key);
+            return loaded;
+        } finally {
+            Entry entry = loaded != null ? toEntry(key, loaded) : null;
+            if (entry != null) {
+                target.asMap().replace(key, marker, entry);
+            } else {
+                target.asMap().remove(key, marker);
+            }
+        }
+    }
+
+    // Mesmo protocolo de marcador do load(), para leituras reativas; o marcador é criado na assinatura
+    public Mono<Loaded> loadReactive(String key, Mono<Loaded> loader) {
+        return Mono.defer(() -> {
+            if (!isActive() || !tracks(key)) {
+                return loader;
+            }
+            Cache<String, Entry> target = cacheFor(key);
+            Entry marker = new Entry(null, PENDING_TTL_NANOS, true);
+            target.put(key, marker);
+            return loader
+                    .doOnNext(loaded -> {
+                        Entry entry = toEntry(key, loaded);
+                        if (entry != null) {
+                            target.asMap().replace(key, marker, entry);
+                        }
+                    })
+                    .doFinally(signal -> target.asMap().remove(key, marker));
+        });
+    }
+
+    public void invalidate(String key) {
+        cacheFor(key).invalidate(key);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        regions.forEach(region -> region.cache().invalidateAll());
+    }
+
+    // Other in-process tiers (e.g. the CacheManager L1) piggyback on tracking; a null key means "everything"
+    public void addInvalidationListener(Consumer<String> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    private Region regionFor(String key) {
+        for (Region region : regions) {
+            if (key.startsWith(region.keyPrefix())) {
+                return region;
+            }
+        }
+        return null;
+    }
+
+    private Cache<String, Entry> cacheFor(String key) {
+        Region region = regionFor(key);
+        return region != null ? region.cache() : cache;
+    }
+
+    private Entry toEntry(String key, Loaded loaded) {
+        if (loaded.value() == null || loaded.ttlMillis() == null || loaded.ttlMillis() == -2) {
+            return null;
+        }
+        Region region = regionFor(key);
+        long maxTtl = region != null ? region.maxTtlNanos() : maxTtlNanos;
+        long ttlNanos = loaded.ttlMillis() < 0
+                ? maxTtl
+                : Math.min(TimeUnit.MILLISECONDS.toNanos(loaded.ttlMillis()), maxTtl);
+        return ttlNanos > 0 ? new Entry(loaded.value(), ttlNanos, false) : null;
+    }
+
+    private void onPushMessage(PushMessage message) {
+        if (!"invalidate".equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeValue);
+        Object keys = content.size() > 1 ? content.get(1) : null;
+        if (keys instanceof List<?> keyList) {
+            keyList.forEach(key -> evictTracked(String.valueOf(key)));
+            invalidationCounter.increment(keyList.size());
+        } else {
+            // Null payload means FLUSHDB/FLUSHALL on the server
+            evictAllTracked();
+            invalidationCounter.increment();
+        }
+    }
+
+    private void evictTracked(String key) {
+        cacheFor(key).invalidate(key);
+        invalidationListeners.forEach(listener -> listener.accept(key));
+    }
+
+    private void evictAllTracked() {
+        invalidateAll();
+        invalidationListeners.forEach(listener -> listener.accept(null));
+    }
+
+    private void enableTrackingAsync() {
+        trackingConnection.async().clientTracking(trackingArgs()).whenComplete((result, error) -> {
+            if (error != null) {
+                log.warn("Failed to re-enable client tracking after reconnect", error);
+                return;
+            }
+            evictAllTracked();
+            trackingActive = true;
+            log.info("Near cache tracking re-enabled after reconnect");
+        });
+    }
+
+    private TrackingArgs trackingArgs() {
+        TrackingArgs args = TrackingArgs.Builder.enabled().bcast();
+        if (trackingPrefixes.length > 0) {
+            args.prefixes(trackingPrefixes);
+        }
+        return args;
+    }
+
+    private static Cache<String, Entry> newCache(long maxSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public record Loaded(Object value, Long ttlMillis) {
+    }
+
+    // Região própria de um prefixo (ex.: um cache do CacheManager): tamanho e TTL máximo independentes
+    private record Region(String keyPrefix, Cache<String, Entry> cache, long maxTtlNanos) {
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long ttlNanos;
+        private final boolean pending;
+
+        private Entry(Object value, long ttlNanos, boolean pending) {
+            this.value = value;
+            this.ttlNanos = ttlNanos;
+            this.pending = pending;
+        }
+    }
+}
@@ -0,0 +1,858 @@
+package com.poc.session;
+
+import com.poc.service.RedisServerlessMonitoringService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Session repository that keeps the RedisSessionRepository hash layout but only writes what a
+ * request changed: dirty attributes as one HSET, removals as HDEL, counters as HINCRBY, all in a
+ * single pipelined round trip together with the expiry refresh. With an expiry sweeper the session
+ * is also filed in a time-bucketed sorted set and the key TTL only acts as a backstop. With a
+ * size guard, oversized attributes live in separate blob keys that are fetched on first read; with
+ * a lazy loader only metadata and hot attributes are read up front.
+ */
+public class DeltaRedisSessionRepository implements SessionRepository<DeltaRedisSessionRepository.DeltaSession> {
+
+    private static final Logger log = LoggerFactory.getLogger(DeltaRedisSessionRepository.class);
+
+    static final String CREATION_TIME = "creationTime";
+    static final String LAST_ACCESSED_TIME = "lastAccessedTime";
+    static final String MAX_INACTIVE_INTERVAL = "maxInactiveInterval";
+    static final String ATTRIBUTE_PREFIX = "sessionAttr:";
+    // Campo separado: HINCRBY exige inteiro em texto, não o valor serializado do atributo
+    static final String COUNTER_PREFIX = "sessionCounter:";
+    // Incrementado a cada save; permite validar a cópia local com um HGET em vez de HGETALL
+    static final String VERSION = "sessionVersion";
+    // Expiração em epoch millis (texto), conferida pelo sweeper antes de apagar a sessão
+    static final String EXPIRES_AT = "sessionExpiresAt";
+    // Atributo grande gravado fora do hash; o valor do campo é a chave do blob
+    static final String BLOB_PREFIX = "sessionBlob:";
+    // Apaga o hash e devolve as chaves de blob que ele referenciava; só KEYS[1], para não cruzar slots
+    private static final RedisScript<List> DELETE_SESSION_SCRIPT = new DefaultRedisScript<>(
+            "local blobs = {} "
+                    + "local fields = redis.call('hgetall', KEYS[1]) "
+                    + "for i = 1, #fields, 2 do "
+                    + "if string.sub(fields[i], 1, #ARGV[1]) == ARGV[1] then blobs[#blobs + 1] = fields[i + 1] end "
+                    + "end "
+                    + "redis.call('del', KEYS[1]) "
+                    + "return blobs",
+            List.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisSerializer<Object> serializer;
+    private final RedisServerlessMonitoringService monitoringService;
+    private final String keyPrefix;
+    private final Duration defaultMaxInactiveInterval;
+    private final DistributionSummary bytesWritten;
+    private final DistributionSummary commandsIssued;
+    private final Counter counterIncrements;
+    private final Counter suppressedTouches;
+    private final SessionLocalCache localCache;
+    private final Duration touchGranularity;
+    private final SessionExpirySweeper expirySweeper;
+    private final SessionSizeGuard sizeGuard;
+    private final SessionLazyLoader lazyLoader;
+
+    public DeltaRedisSessionRepository(RedisTemplate<String, Object> redisTemplate,
+                                       RedisSerializer<Object> serializer,
+                                       RedisServerlessMonitoringService monitoringService,
+                                       MeterRegistry meterRegistry,
+                                       String namespace,
+                                       Duration defaultMaxInactiveInterval,
+                                       Duration touchGranularity,
+                                       SessionLocalCache localCache,
+                                       SessionExpirySweeper expirySweeper,
+                                       SessionSizeGuard sizeGuard,
+                                       SessionLazyLoader lazyLoader) {
+        this.redisTemplate = redisTemplate;
+        this.lazyLoader = lazyLoader;
+        this.sizeGuard = sizeGuard;
+        this.localCache = localCache;
+        this.expirySweeper = expirySweeper;
+        if (touchGranularity.compareTo(defaultMaxInactiveInterval.dividedBy(2)) > 0) {
+            log.warn("Session touch granularity {} is too close to the {} timeout, capping at half of it",
+                    touchGranularity, defaultMaxInactiveInterval);
+            touchGranularity = defaultMaxInactiveInterval.dividedBy(2);
+        }
+        this.touchGranularity = touchGranularity;
+        this.serializer = serializer;
+        this.monitoringService = monitoringService;
+        this.keyPrefix = namespace + ":sessions:";
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+        this.bytesWritten = DistributionSummary.builder("redis.session.save.bytes")
+                .description("Bytes (keys, fields and values) written to Redis per session save")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.commandsIssued = DistributionSummary.builder("redis.session.save.commands")
+                .description("Redis commands issued per session save")
+                .register(meterRegistry);
+        this.suppressedTouches = Counter.builder("redis.session.touch.suppressed")
+                .description("Session saves skipped because only lastAccessedTime changed within the touch granularity")
+                .register(meterRegistry);
+        this.counterIncrements = Counter.builder("redis.session.counter.increments")
+                .description("Session counters flushed with HINCRBY")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public DeltaSession createSession() {
+        MapSession cached = new MapSession();
+        cached.setMaxInactiveInterval(defaultMaxInactiveInterval);
+        return new DeltaSession(cached, true, 0, Set.of(), Set.of());
+    }
+
+    @Override
+    public void save(DeltaSession session) {
+        if (session.lazy) {
+            // save roda uma vez por request no commit da sessão: fecha a conta do que foi lido
+            lazyLoader.record(session.lazyPresent, session.lazyFetched, session.lazyFetchedBytes, session.lazyPendingBytes);
+            session.lazy = false;
+        }
+        if (!session.isNew && !session.getId().equals(session.originalId)) {
+            String originalKey = key(session.originalId);
+            String newKey = key(session.getId());
+            redisTemplate.execute((RedisCallback<Object>) connection -> {
+                connection.keyCommands().rename(bytes(originalKey), bytes(newKey));
+                return null;
+            });
+            if (localCache != null) {
+                localCache.invalidate(session.originalId);
+            }
+            session.originalId = session.getId();
+            if (expirySweeper != null) {
+                // O índice ainda aponta o id antigo (o sweeper descarta); força refilar o novo
+                session.persistedExpiryBucket = -1;
+                session.delta.put(LAST_ACCESSED_TIME, session.getLastAccessedTime().toEpochMilli());
+            }
+        }
+        if (!session.hasChanges()) {
+            if (session.pendingTouch) {
+                // Só o lastAccessedTime mudou e o último toque persistido é recente: nem HSET nem PEXPIRE
+                suppressedTouches.increment();
+                session.pendingTouch = false;
+            }
+            return;
+        }
+        if (session.pendingTouch) {
+            // Já vai haver escrita: o lastAccessedTime pega carona sem custo extra de round trip
+            session.delta.put(LAST_ACCESSED_TIME, session.getLastAccessedTime().toEpochMilli());
+        }
+        byte[] key = bytes(key(session.getId()));
+        Map<String, byte[]> fields = new LinkedHashMap<>();
+        List<String> removedFields = new ArrayList<>();
+        List<String> counterNames = new ArrayList<>();
+        List<SessionCounter> counters = new ArrayList<>();
+        List<String> migratedCounters = new ArrayList<>();
+        List<SessionCounter> absoluteCounters = new ArrayList<>();
+
+        session.delta.forEach((field, value) -> {
+            if (value == null) {
+                removedFields.add(field);
+            } else {
+                fields.put(field, serializer.serialize(value));
+            }
+        });
+        session.dirtyCounters.forEach((name, counter) -> {
+            if (session.serializedAttributes.contains(name)) {
+                // Antes era atributo serializado (ex.: Integer legado): grava o valor absoluto e remove o antigo
+                fields.put(COUNTER_PREFIX + name, bytes(String.valueOf(counter.value())));
+                removedFields.add(ATTRIBUTE_PREFIX + name);
+                migratedCounters.add(name);
+                absoluteCounters.add(counter);
+            } else if (counter.pendingDelta() != 0) {
+                counterNames.add(name);
+                counters.add(counter);
+            }
+        });
+
+        Map<String, byte[]> blobWrites = new LinkedHashMap<>();
+        List<String> blobDeletes = new ArrayList<>();
+        Map<String, String> newBlobKeys = new HashMap<>();
+        Set<String> touched = session.touchedAttributeNames();
+        if (sizeGuard != null) {
+            Map<String, byte[]> writtenAttributes = new LinkedHashMap<>();
+            fields.forEach((field, value) -> {
+                if (field.startsWith(ATTRIBUTE_PREFIX)) {
+                    writtenAttributes.put(field.substring(ATTRIBUTE_PREFIX.length()), value);
+                }
+            });
+            long untouchedInline = 0;
+            for (Map.Entry<String, Integer> inline : session.inlineSizes.entrySet()) {
+                if (!touched.contains(inline.getKey())) {
+                    untouchedInline += inline.getValue();
+                }
+            }
+            sizeGuard.offload(session.getId(), writtenAttributes, untouchedInline).forEach((name, value) -> {
+                String blobKey = sizeGuard.newBlobKey();
+                fields.remove(ATTRIBUTE_PREFIX + name);
+                fields.put(BLOB_PREFIX + name, bytes(blobKey));
+                removedFields.add(ATTRIBUTE_PREFIX + name);
+                blobWrites.put(blobKey, value);
+                newBlobKeys.put(name, blobKey);
+            });
+        }
+        // Atributo regravado ou removido: o blob anterior deixa de valer
+        for (String name : touched) {
+            String previousBlob = session.blobKeys.get(name);
+            if (previousBlob != null) {
+                blobDeletes.add(previousBlob);
+                if (!newBlobKeys.containsKey(name)) {
+                    removedFields.add(BLOB_PREFIX + name);
+                }
+            }
+        }
+        // Blobs que continuam valendo acompanham o TTL da sessão
+        List<String> blobRefreshes = new ArrayList<>();
+        session.blobKeys.forEach((name, blobKey) -> {
+            if (!blobDeletes.contains(blobKey)) {
+                blobRefreshes.add(blobKey);
+            }
+        });
+
+        Duration maxInactive = session.getMaxInactiveInterval();
+        long previousBucket = session.persistedExpiryBucket;
+        long expiryBucket = previousBucket;
+        long expiresAt = -1;
+        if (expirySweeper != null
+                && (session.delta.containsKey(LAST_ACCESSED_TIME) || session.delta.containsKey(MAX_INACTIVE_INTERVAL))) {
+            if (maxInactive.isNegative()) {
+                expiryBucket = -1;
+                removedFields.add(EXPIRES_AT);
+            } else {
+                expiresAt = session.getLastAccessedTime().toEpochMilli() + maxInactive.toMillis();
+                expiryBucket = expirySweeper.bucketOf(expiresAt);
+                fields.put(EXPIRES_AT, bytes(String.valueOf(expiresAt)));
+            }
+        }
+        // Só troca de bucket quando o toque persistido cruza a fronteira; no mesmo bucket o sweeper confere o hash
+        boolean moveBucket = expiryBucket != previousBucket;
+        long newBucket = expiryBucket;
+        long newExpiresAt = expiresAt;
+
+        Map<byte[], byte[]> rawFields = new LinkedHashMap<>();
+        long written = key.length;
+        for (Map.Entry<String, byte[]> field : fields.entrySet()) {
+            byte[] rawField = bytes(field.getKey());
+            rawFields.put(rawField, field.getValue());
+            written += rawField.length + field.getValue().length;
+        }
+        for (Map.Entry<String, byte[]> blob : blobWrites.entrySet()) {
+            written += blob.getKey().length() + blob.getValue().length;
+        }
+        byte[][] rawRemoved = new byte[removedFields.size()][];
+        for (int i = 0; i < rawRemoved.length; i++) {
+            rawRemoved[i] = bytes(removedFields.get(i));
+            written += rawRemoved[i].length;
+        }
+        long[] deltas = new long[counters.size()];
+        for (int i = 0; i < counters.size(); i++) {
+            deltas[i] = counters.get(i).pendingDelta();
+            written += COUNTER_PREFIX.length() + counterNames.get(i).length() + Long.toString(deltas[i]).length();
+        }
+        written += VERSION.length() + 1;
+        // HMSET + HDEL + ZREM/ZADD/PEXPIRE do índice + um HINCRBY por contador + HINCRBY da versão + PEXPIRE
+        int commands = (fields.isEmpty() ? 0 : 1) + (removedFields.isEmpty() ? 0 : 1) + counters.size() + 2
+                + (moveBucket ? (previousBucket >= 0 ? 1 : 0) + (newBucket >= 0 ? 2 : 0) : 0)
+                + blobWrites.size() + blobDeletes.size() + blobRefreshes.size();
+        Duration keyTtl = ttl(maxInactive);
+
+        List<Object> results = monitoringService.executeWithMonitoring("sessionSave", commands, () ->
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    if (!rawFields.isEmpty()) {
+                        connection.hashCommands().hMSet(key, rawFields);
+                    }
+                    if (rawRemoved.length > 0) {
+                        connection.hashCommands().hDel(key, rawRemoved);
+                    }
+                    // Blobs: SET/DEL/PEXPIRE também antes dos HINCRBY
+                    blobWrites.forEach((blobKey, value) -> {
+                        if (keyTtl.isNegative()) {
+                            connection.stringCommands().set(bytes(blobKey), value);
+                        } else {
+                            connection.stringCommands().pSetEx(bytes(blobKey), keyTtl.toMillis(), value);
+                        }
+                    });
+                    // Um DEL por blob: cada chave cai num slot, e o serverless rejeita DEL multi-chave (CROSSSLOT)
+                    blobDeletes.forEach(blobKey -> connection.keyCommands().del(bytes(blobKey)));
+                    blobRefreshes.forEach(blobKey -> expire(connection, bytes(blobKey), keyTtl));
+                    if (moveBucket) {
+                        // Antes dos HINCRBY: a leitura dos resultados pela cauda continua valendo
+                        if (previousBucket >= 0) {
+                            connection.zSetCommands().zRem(bytes(expirySweeper.bucketKey(previousBucket)), bytes(session.getId()));
+                        }
+                        if (newBucket >= 0) {
+                            byte[] bucketKey = bytes(expirySweeper.bucketKey(newBucket));
+                            connection.zSetCommands().zAdd(bucketKey, newExpiresAt, bytes(session.getId()));
+                            connection.keyCommands().pExpire(bucketKey, expirySweeper.bucketKeyTtlMillis(newBucket));
+                        }
+                    }
+                    for (int i = 0; i < deltas.length; i++) {
+                        connection.hashCommands().hIncrBy(key, bytes(COUNTER_PREFIX + counterNames.get(i)), deltas[i]);
+                    }
+                    connection.hashCommands().hIncrBy(key, bytes(VERSION), 1);
+                    expire(connection, key, keyTtl);
+                    return null;
+                }));
+
+        Long[] tail = pipelineTail(results, counters.size());
+        for (int i = 0; i < counters.size(); i++) {
+            if (tail[i] != null) {
+                counters.get(i).applied(tail[i]);
+                fields.put(COUNTER_PREFIX + counterNames.get(i), bytes(String.valueOf(tail[i])));
+            }
+        }
+        Long newVersion = tail[counters.size()];
+        if (localCache != null) {
+            if (newVersion instanceof Long version && fields.keySet().containsAll(counterPrefixed(counterNames))) {
+                fields.put(VERSION, bytes(String.valueOf(version)));
+                localCache.applySave(session.getId(), session.version, version, fields, removedFields, session.isNew);
+            } else {
+                localCache.invalidate(session.getId());
+            }
+        }
+        if (newVersion instanceof Long version) {
+            session.version = version;
+        }
+        session.persistedExpiryBucket = newBucket;
+        touched.forEach(name -> {
+            session.blobKeys.remove(name);
+            session.inlineSizes.remove(name);
+        });
+        session.blobKeys.putAll(newBlobKeys);
+        fields.forEach((field, value) -> {
+            if (field.startsWith(ATTRIBUTE_PREFIX)) {
+                session.inlineSizes.put(field.substring(ATTRIBUTE_PREFIX.length()), value.length);
+            }
+        });
+        absoluteCounters.forEach(counter -> counter.applied(counter.value()));
+        counterIncrements.increment(counters.size());
+        bytesWritten.record(written);
+        commandsIssued.record(commands);
+        session.markSaved(migratedCounters);
+    }
+
+    @Override
+    public DeltaSession findById(String id) {
+        byte[] key = bytes(key(id));
+        SessionLocalCache.Entry cached = localCache != null ? localCache.get(id) : null;
+        if (cached != null) {
+            byte[] version = monitoringService.executeWithMonitoring("sessionVersion", key(id), () ->
+                    redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                            connection.hashCommands().hGet(key, bytes(VERSION))));
+            if (version == null) {
+                localCache.invalidate(id);
+                return null;
+            }
+            if (Long.parseLong(new String(version, StandardCharsets.UTF_8)) == cached.version()) {
+                localCache.recordHit();
+                return toSession(id, cached.fields());
+            }
+            localCache.recordStale();
+        } else if (localCache != null) {
+            localCache.recordMiss();
+        }
+        if (lazyLoader != null) {
+            return findLazily(id);
+        }
+
+        Map<byte[], byte[]> entries = monitoringService.executeWithMonitoring("sessionLoad", key(id), () ->
+                redisTemplate.execute((RedisCallback<Map<byte[], byte[]>>) connection ->
+                        connection.hashCommands().hGetAll(key)));
+        if (entries == null || entries.isEmpty()) {
+            if (localCache != null) {
+                localCache.invalidate(id);
+            }
+            return null;
+        }
+        Map<String, byte[]> fields = new HashMap<>(entries.size());
+        entries.forEach((field, value) -> fields.put(new String(field, StandardCharsets.UTF_8), value));
+        DeltaSession session = toSession(id, fields);
+        // Sem sessionVersion (gravada por outro repositório) não há como validar a cópia local
+        if (localCache != null && session != null && fields.containsKey(VERSION)) {
+            localCache.put(id, session.version, fields);
+        }
+        return session;
+    }
+
+    // Versão gravada no Redis (um HGET, sem atributos); -1 se a sessão ainda não foi salva
+    public long persistedVersion(String id) {
+        byte[] version = monitoringService.executeWithMonitoring("sessionVersion", key(id), () ->
+                redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                        connection.hashCommands().hGet(bytes(key(id)), bytes(VERSION))));
+        return version != null ? Long.parseLong(new String(version, StandardCharsets.UTF_8)) : -1;
+    }
+
+    private DeltaSession findLazily(String id) {
+        SessionLazyLoader.Load load = monitoringService.executeWithMonitoring("sessionLazyLoad", key(id), () ->
+                lazyLoader.load(redisTemplate, key(id)));
+        if (load == null) {
+            return null;
+        }
+        // Cópia parcial: não alimenta o cache local, que guarda o hash inteiro
+        DeltaSession session = toSession(id, load.fields(), load.unloaded());
+        if (session != null) {
+            session.lazy = true;
+            session.lazyPresent = session.getAttributeNames().size();
+            session.lazyFetched = session.lazyPresent - countPlaceholders(session);
+            for (Map.Entry<String, byte[]> field : load.fields().entrySet()) {
+                if (field.getKey().startsWith(ATTRIBUTE_PREFIX) || field.getKey().startsWith(COUNTER_PREFIX)) {
+                    session.lazyFetchedBytes += field.getValue().length;
+                }
+            }
+            load.unloaded().values().forEach(size -> session.lazyPendingBytes += size);
+        }
+        return session;
+    }
+
+    private static int countPlaceholders(DeltaSession session) {
+        int placeholders = 0;
+        for (String name : session.cached.getAttributeNames()) {
+            Object value = session.cached.getAttribute(name);
+            if (value instanceof LazyField || value instanceof BlobRef) {
+                placeholders++;
+            }
+        }
+        return placeholders;
+    }
+
+    private DeltaSession toSession(String id, Map<String, byte[]> fields) {
+        return toSession(id, fields, Map.of());
+    }
+
+    private DeltaSession toSession(String id, Map<String, byte[]> fields, Map<String, Long> unloaded) {
+        MapSession loaded = new MapSession(id);
+        Set<String> serializedAttributes = new HashSet<>();
+        Set<String> counterNames = new HashSet<>();
+        Map<String, String> blobKeys = new HashMap<>();
+        Map<String, Integer> inlineSizes = new HashMap<>();
+        long version = 0;
+        for (Map.Entry<String, byte[]> entry : fields.entrySet()) {
+            String field = entry.getKey();
+            if (field.startsWith(COUNTER_PREFIX)) {
+                String name = field.substring(COUNTER_PREFIX.length());
+                loaded.setAttribute(name, new SessionCounter(Long.parseLong(new String(entry.getValue(), StandardCharsets.UTF_8))));
+                counterNames.add(name);
+            } else if (field.startsWith(ATTRIBUTE_PREFIX)) {
+                String name = field.substring(ATTRIBUTE_PREFIX.length());
+                if (!counterNames.contains(name)) {
+                    loaded.setAttribute(name, serializer.deserialize(entry.getValue()));
+                }
+                serializedAttributes.add(name);
+                inlineSizes.put(name, entry.getValue().length);
+            } else if (field.startsWith(BLOB_PREFIX)) {
+                // Só busca o blob quando o atributo for lido
+                String name = field.substring(BLOB_PREFIX.length());
+                String blobKey = new String(entry.getValue(), StandardCharsets.UTF_8);
+                if (!counterNames.contains(name)) {
+                    loaded.setAttribute(name, new BlobRef(blobKey));
+                }
+                blobKeys.put(name, blobKey);
+            } else if (VERSION.equals(field)) {
+                version = Long.parseLong(new String(entry.getValue(), StandardCharsets.UTF_8));
+            } else if (!EXPIRES_AT.equals(field)) {
+                Object value = serializer.deserialize(entry.getValue());
+                switch (field) {
+                    case CREATION_TIME -> loaded.setCreationTime(Instant.ofEpochMilli(((Number) value).longValue()));
+                    case LAST_ACCESSED_TIME -> loaded.setLastAccessedTime(Instant.ofEpochMilli(((Number) value).longValue()));
+                    case MAX_INACTIVE_INTERVAL -> loaded.setMaxInactiveInterval(Duration.ofSeconds(((Number) value).longValue()));
+                    default -> log.debug("Ignoring unknown session field {} for {}", field, id);
+                }
+            }
+        }
+        // Campos deixados no Redis pelo carregamento lazy viram placeholders resolvidos no primeiro getAttribute
+        for (Map.Entry<String, Long> entry : unloaded.entrySet()) {
+            String field = entry.getKey();
+            if (field.startsWith(COUNTER_PREFIX)) {
+                String name = field.substring(COUNTER_PREFIX.length());
+                if (!counterNames.contains(name)) {
+                    loaded.setAttribute(name, new LazyField(field, entry.getValue()));
+                    counterNames.add(name);
+                }
+            } else {
+                String name = field.substring(ATTRIBUTE_PREFIX.length());
+                if (!counterNames.contains(name) && loaded.getAttribute(name) == null) {
+                    loaded.setAttribute(name, new LazyField(field, entry.getValue()));
+                }
+                serializedAttributes.add(name);
+                inlineSizes.put(name, entry.getValue().intValue());
+            }
+        }
+        // Campo de contador prevalece sobre um atributo legado com o mesmo nome
+        serializedAttributes.removeAll(counterNames);
+        // Sem creationTime o hash é resto de um save delta que correu junto com o sweeper
+        if (loaded.isExpired() || !fields.containsKey(CREATION_TIME)) {
+            deleteById(id);
+            return null;
+        }
+        DeltaSession session = new DeltaSession(loaded, false, version, serializedAttributes, counterNames);
+        session.blobKeys.putAll(blobKeys);
+        session.inlineSizes.putAll(inlineSizes);
+        return session;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        if (localCache != null) {
+            localCache.invalidate(id);
+        }
+        monitoringService.executeWithMonitoring("sessionDelete", key(id), () -> {
+            deleteWithBlobs(redisTemplate, List.of(key(id)));
+            return null;
+        });
+    }
+
+    /**
+     * Deletes session hashes together with the attribute blobs they point to: one single-key script
+     * per session, then one DEL per blob key, each step in a single pipeline.
+     */
+    static void deleteWithBlobs(RedisTemplate<String, Object> redisTemplate, List<String> sessionKeys) {
+        if (sessionKeys.isEmpty()) {
+            return;
+        }
+        byte[] script = bytes(DELETE_SESSION_SCRIPT.getScriptAsString());
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            sessionKeys.forEach(sessionKey -> connection.scriptingCommands().eval(script, ReturnType.MULTI, 1,
+                    bytes(sessionKey), bytes(BLOB_PREFIX)));
+            return null;
+        }, RedisSerializer.byteArray());
+        List<byte[]> blobKeys = new ArrayList<>();
+        for (Object result : results) {
+            if (result instanceof List<?> blobs) {
+                blobs.forEach(blob -> {
+                    if (blob instanceof byte[] blobKey) {
+                        blobKeys.add(blobKey);
+                    }
+                });
+            }
+        }
+        if (!blobKeys.isEmpty()) {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                blobKeys.forEach(blobKey -> connection.keyCommands().del(blobKey));
+                return null;
+            });
+        }
+    }
+
+    // Com o sweeper, o TTL da chave fica só como rede de segurança depois do fim do bucket
+    private Duration ttl(Duration maxInactive) {
+        return expirySweeper == null || maxInactive.isNegative()
+                ? maxInactive
+                : Duration.ofMillis(expirySweeper.backstopTtlMillis(maxInactive));
+    }
+
+    private Object loadBlob(String sessionId, BlobRef ref) {
+        byte[] value = monitoringService.executeWithMonitoring("sessionBlobLoad", ref.key(), () ->
+                redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                        connection.stringCommands().get(bytes(ref.key()))));
+        if (sizeGuard != null) {
+            sizeGuard.recordBlobLoad();
+        }
+        if (value == null) {
+            log.warn("Offloaded attribute blob {} of session {} is gone", ref.key(), sessionId);
+            return null;
+        }
+        return serializer.deserialize(value);
+    }
+
+    /**
+     * Reads the counter values and the new version from the end of a save pipeline. Status replies
+     * (HMSET, SET) are dropped from the result list, so the layout is only fixed from the tail:
+     * {@code [..., HINCRBY counters..., HINCRBY version, PEXPIRE/PERSIST]}. Entries that are not a
+     * Long (missing or unexpected reply) come back as null.
+     */
+    static Long[] pipelineTail(List<Object> results, int counters) {
+        Long[] tail = new Long[counters + 1];
+        int offset = results.size() - 2 - counters;
+        for (int i = 0; i <= counters; i++) {
+            int index = offset + i;
+            tail[i] = index >= 0 && results.get(index) instanceof Long value ? value : null;
+        }
+        return tail;
+    }
+
+    private static void expire(RedisConnection connection, byte[] key, Duration maxInactive) {
+        if (maxInactive.isNegative()) {
+            connection.keyCommands().persist(key);
+        } else {
+            connection.keyCommands().pExpire(key, maxInactive.toMillis());
+        }
+    }
+
+    private static List<String> counterPrefixed(List<String> counterNames) {
+        List<String> fields = new ArrayList<>(counterNames.size());
+        counterNames.forEach(name -> fields.add(COUNTER_PREFIX + name));
+        return fields;
+    }
+
+    private String key(String sessionId) {
+        return keyPrefix + sessionId;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<Object> loadFields(String sessionId, List<LazyField> refs) {
+        byte[][] rawFields = refs.stream().map(ref -> bytes(ref.field())).toArray(byte[][]::new);
+        List<byte[]> values = monitoringService.executeWithMonitoring("sessionAttributeLoad", key(sessionId), () ->
+                redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                        connection.hashCommands().hMGet(bytes(key(sessionId)), rawFields)));
+        List<Object> loaded = new ArrayList<>(refs.size());
+        for (int i = 0; i < refs.size(); i++) {
+            loaded.add(values != null && i < values.size() ? decodeField(refs.get(i), values.get(i)) : null);
+        }
+        return loaded;
+    }
+
+    private Object decodeField(LazyField ref, byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        if (ref.field().startsWith(COUNTER_PREFIX)) {
+            return new SessionCounter(Long.parseLong(new String(value, StandardCharsets.UTF_8)));
+        }
+        return serializer.deserialize(value);
+    }
+
+    private record BlobRef(String key) {
+    }
+
+    private record LazyField(String field, long size) {
+    }
+
+    public final class DeltaSession implements Session {
+
+        private final MapSession cached;
+        // Campo do hash -> novo valor (null = HDEL); contadores ficam à parte para virar HINCRBY
+        private final Map<String, Object> delta = new HashMap<>();
+        private final Map<String, SessionCounter> dirtyCounters = new HashMap<>();
+        private final Set<String> serializedAttributes;
+        private final Set<String> counterNames;
+        private boolean isNew;
+        private String originalId;
+        private long version;
+        // Último lastAccessedTime gravado no Redis; o TTL da chave foi renovado a partir dele
+        private Instant persistedLastAccessedTime;
+        private boolean pendingTouch;
+        // Bucket do índice de expiração onde o id está filado (-1 = nenhum)
+        private long persistedExpiryBucket;
+        // Atributo -> chave do blob, e tamanho dos atributos mantidos no hash (orçamento da sessão)
+        private final Map<String, String> blobKeys = new HashMap<>();
+        private final Map<String, Integer> inlineSizes = new HashMap<>();
+        // Contabilidade do carregamento lazy, registrada no save
+        private boolean lazy;
+        private int lazyPresent;
+        private int lazyFetched;
+        private long lazyFetchedBytes;
+        private long lazyPendingBytes;
+        private int lazyResolutions;
+
+        private DeltaSession(MapSession cached, boolean isNew, long version,
+                             Set<String> serializedAttributes, Set<String> counterNames) {
+            this.cached = cached;
+            this.isNew = isNew;
+            this.version = version;
+            this.originalId = cached.getId();
+            this.serializedAttributes = new HashSet<>(serializedAttributes);
+            this.counterNames = new HashSet<>(counterNames);
+            this.persistedLastAccessedTime = cached.getLastAccessedTime();
+            this.persistedExpiryBucket = isNew || expirySweeper == null || cached.getMaxInactiveInterval().isNegative()
+                    ? -1
+                    : expirySweeper.bucketOf(persistedLastAccessedTime.plus(cached.getMaxInactiveInterval()).toEpochMilli());
+            if (isNew) {
+                delta.put(CREATION_TIME, cached.getCreationTime().toEpochMilli());
+                delta.put(MAX_INACTIVE_INTERVAL, (int) cached.getMaxInactiveInterval().getSeconds());
+                delta.put(LAST_ACCESSED_TIME, cached.getLastAccessedTime().toEpochMilli());
+            }
+        }
+
+        @Override
+        public String getId() {
+            return cached.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            return cached.changeSessionId();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getAttribute(String attributeName) {
+            Object value = cached.getAttribute(attributeName);
+            if (value instanceof LazyField) {
+                resolveLazy(attributeName);
+                value = cached.getAttribute(attributeName);
+            } else if (value instanceof BlobRef ref) {
+                lazyFetched++;
+                value = loadBlob(getId(), ref);
+                if (value != null) {
+                    cached.setAttribute(attributeName, value);
+                } else {
+                    cached.removeAttribute(attributeName);
+                }
+            }
+            return (T) value;
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return cached.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            if (attributeValue == null) {
+                removeAttribute(attributeName);
+                return;
+            }
+            cached.setAttribute(attributeName, attributeValue);
+            if (attributeValue instanceof SessionCounter counter) {
+                dirtyCounters.put(attributeName, counter);
+                delta.remove(ATTRIBUTE_PREFIX + attributeName);
+                return;
+            }
+            delta.put(ATTRIBUTE_PREFIX + attributeName, attributeValue);
+            if (counterNames.remove(attributeName) || dirtyCounters.remove(attributeName) != null) {
+                // Deixou de ser contador: o campo numérico precisa sumir
+                delta.put(COUNTER_PREFIX + attributeName, null);
+            }
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            cached.removeAttribute(attributeName);
+            delta.put(ATTRIBUTE_PREFIX + attributeName, null);
+            if (counterNames.remove(attributeName) || dirtyCounters.remove(attributeName) != null) {
+                delta.put(COUNTER_PREFIX + attributeName, null);
+            }
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return cached.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            cached.setLastAccessedTime(lastAccessedTime);
+            if (isNew || Duration.between(persistedLastAccessedTime, lastAccessedTime).compareTo(touchGranularity) >= 0) {
+                delta.put(LAST_ACCESSED_TIME, lastAccessedTime.toEpochMilli());
+                pendingTouch = false;
+            } else {
+                pendingTouch = true;
+            }
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return cached.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            cached.setMaxInactiveInterval(interval);
+            delta.put(MAX_INACTIVE_INTERVAL, (int) interval.getSeconds());
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return cached.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return cached.isExpired();
+        }
+
+        // Primeira leitura fria busca só o campo pedido; a partir da segunda (ex.: enumeração) um HMGET traz o resto
+        private void resolveLazy(String attributeName) {
+            List<String> names = new ArrayList<>();
+            List<LazyField> refs = new ArrayList<>();
+            if (lazyResolutions++ == 0) {
+                names.add(attributeName);
+                refs.add((LazyField) cached.getAttribute(attributeName));
+            } else {
+                for (String name : cached.getAttributeNames()) {
+                    if (cached.getAttribute(name) instanceof LazyField ref) {
+                        names.add(name);
+                        refs.add(ref);
+                    }
+                }
+            }
+            // Chave ainda é a do id original até o save fazer o RENAME
+            List<Object> values = loadFields(originalId, refs);
+            for (int i = 0; i < names.size(); i++) {
+                lazyFetched++;
+                lazyFetchedBytes += refs.get(i).size();
+                lazyPendingBytes -= refs.get(i).size();
+                if (values.get(i) != null) {
+                    cached.setAttribute(names.get(i), values.get(i));
+                } else {
+                    cached.removeAttribute(names.get(i));
+                }
+            }
+        }
+
+        private Set<String> touchedAttributeNames() {
+            Set<String> names = new HashSet<>(dirtyCounters.keySet());
+            delta.keySet().forEach(field -> {
+                if (field.startsWith(ATTRIBUTE_PREFIX)) {
+                    names.add(field.substring(ATTRIBUTE_PREFIX.length()));
+                }
+            });
+            return names;
+        }
+
+        private boolean hasChanges() {
+            return !delta.isEmpty() || !dirtyCounters.isEmpty();
+        }
+
+        private void markSaved(List<String> migratedCounters) {
+            delta.forEach((field, value) -> {
+                if (field.startsWith(ATTRIBUTE_PREFIX)) {
+                    String name = field.substring(ATTRIBUTE_PREFIX.length());
+                    if (value != null) {
+                        serializedAttributes.add(name);
+                    } else {
+                        serializedAttributes.remove(name);
+                    }
+                }
+            });
+            counterNames.addAll(dirtyCounters.keySet());
+            migratedCounters.forEach(serializedAttributes::remove);
+            if (delta.containsKey(LAST_ACCESSED_TIME)) {
+                persistedLastAccessedTime = cached.getLastAccessedTime();
+            }
+            pendingTouch = false;
+            delta.clear();
+            dirtyCounters.clear();
+            isNew = false;
+        }
+    }
+}
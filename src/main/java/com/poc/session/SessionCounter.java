@@ -0,0 +1,94 @@
+package com.poc.session;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Numeric session attribute incremented server-side. Only written while the delta repository is
+ * active, which flushes the pending delta as HINCRBY; in standard mode the attribute stays a
+ * plain Integer so tasks still on the previous version can keep casting it.
+ */
+public final class SessionCounter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long value;
+    private transient long pendingDelta;
+
+    public SessionCounter(long value) {
+        this.value = value;
+    }
+
+    // Modo standard grava Integer (formato que tasks antigas leem com cast); só o delta grava SessionCounter.
+    // Os dois lados aceitam qualquer um dos formatos, então trocar o modo não quebra sessões existentes
+    public static long increment(HttpSession session, String name, boolean deltaRepository) {
+        if (deltaRepository) {
+            SessionCounter counter = incremented(session.getAttribute(name));
+            session.setAttribute(name, counter);
+            return counter.value();
+        }
+        int next = intValue(session.getAttribute(name)) + 1;
+        session.setAttribute(name, next);
+        return next;
+    }
+
+    // Variante WebFlux: não há repositório delta no stack reativo, então sempre Integer
+    public static long increment(Map<String, Object> attributes, String name) {
+        int next = intValue(attributes.get(name)) + 1;
+        attributes.put(name, next);
+        return next;
+    }
+
+    private static int intValue(Object current) {
+        if (current instanceof SessionCounter counter) {
+            return (int) counter.value();
+        }
+        return current instanceof Number number ? number.intValue() : 0;
+    }
+
+    private static SessionCounter incremented(Object current) {
+        SessionCounter counter = current instanceof SessionCounter sessionCounter
+                ? sessionCounter
+                : new SessionCounter(current instanceof Number number ? number.longValue() : 0L);
+        counter.increment(1);
+        return counter;
+    }
+
+    public synchronized void increment(long delta) {
+        value += delta;
+        pendingDelta += delta;
+    }
+
+    @JsonValue
+    public synchronized long value() {
+        return value;
+    }
+
+    synchronized long pendingDelta() {
+        return pendingDelta;
+    }
+
+    // Valor devolvido pelo HINCRBY: inclui incrementos concorrentes de outras tasks
+    synchronized void applied(long serverValue) {
+        value = serverValue;
+        pendingDelta = 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SessionCounter counter && counter.value() == value();
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value());
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value());
+    }
+}
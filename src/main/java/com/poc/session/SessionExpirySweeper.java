@@ -0,0 +1,215 @@
+package com.poc.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expiry index for the delta session repository: sessions are filed in one sorted set per time
+ * bucket (score = expiry millis) and a background sweeper reclaims elapsed buckets in bounded,
+ * pipelined batches. A per-bucket lock makes sure only one ECS task sweeps a given bucket.
+ * The key TTL is kept as a backstop, padded past the bucket so the sweeper normally gets there first.
+ */
+public class SessionExpirySweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionExpirySweeper.class);
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String sessionKeyPrefix;
+    private final String bucketKeyPrefix;
+    private final long bucketMillis;
+    private final int batchSize;
+    private final Duration period;
+    private final Duration lockTtl;
+    private final Duration lookback;
+    private final Timer sweepTimer;
+    private final Counter reclaimedCounter;
+    private final Counter contendedCounter;
+    private final AtomicLong backlog = new AtomicLong();
+    private ScheduledExecutorService sweepExecutor;
+
+    public SessionExpirySweeper(RedisTemplate<String, Object> redisTemplate,
+                                MeterRegistry meterRegistry,
+                                String namespace,
+                                Duration bucketSize,
+                                int batchSize,
+                                Duration period,
+                                Duration lockTtl,
+                                Duration lookback) {
+        this.redisTemplate = redisTemplate;
+        this.sessionKeyPrefix = namespace + ":sessions:";
+        this.bucketKeyPrefix = namespace + ":expirations:";
+        this.bucketMillis = Math.max(1000, bucketSize.toMillis());
+        this.batchSize = batchSize;
+        this.period = period;
+        this.lockTtl = lockTtl;
+        this.lookback = lookback;
+        this.sweepTimer = Timer.builder("redis.session.expiry.sweep")
+                .description("Duration of one expiry sweep across elapsed buckets")
+                .register(meterRegistry);
+        this.reclaimedCounter = Counter.builder("redis.session.expiry.reclaimed")
+                .description("Expired sessions deleted by the sweeper")
+                .register(meterRegistry);
+        this.contendedCounter = Counter.builder("redis.session.expiry.lock.contended")
+                .description("Elapsed buckets skipped because another task holds the sweep lock")
+                .register(meterRegistry);
+        Gauge.builder("redis.session.expiry.backlog", backlog, AtomicLong::get)
+                .description("Sessions still filed in elapsed expiry buckets at the start of the last sweep")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        sweepExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-expiry-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Atraso inicial aleatório para as tasks não disputarem o lock no mesmo instante
+        long initialDelay = ThreadLocalRandom.current().nextLong(period.toMillis() + 1);
+        sweepExecutor.scheduleWithFixedDelay(this::sweep, initialDelay, period.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Session expiry sweeper started (bucket: {}ms, batch: {}, period: {})", bucketMillis, batchSize, period);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweepExecutor != null) {
+            sweepExecutor.shutdownNow();
+        }
+    }
+
+    long bucketOf(long expiryMillis) {
+        return expiryMillis / bucketMillis;
+    }
+
+    String bucketKey(long bucket) {
+        return bucketKeyPrefix + bucket;
+    }
+
+    // O bucket some sozinho depois que todas as sessões dele já teriam expirado, mesmo sem sweeper
+    long bucketKeyTtlMillis(long bucket) {
+        return (bucket + 1) * bucketMillis - System.currentTimeMillis() + lookback.toMillis();
+    }
+
+    // TTL de segurança da chave da sessão: passa do fim do bucket para o sweeper chegar antes
+    long backstopTtlMillis(Duration maxInactive) {
+        return maxInactive.toMillis() + 2 * bucketMillis;
+    }
+
+    void sweep() {
+        Timer.Sample sample = Timer.start();
+        try {
+            long now = System.currentTimeMillis();
+            long current = bucketOf(now);
+            long first = bucketOf(now - lookback.toMillis());
+            List<Long> buckets = new ArrayList<>();
+            for (long bucket = first; bucket < current; bucket++) {
+                buckets.add(bucket);
+            }
+            if (buckets.isEmpty()) {
+                return;
+            }
+            // Um round trip para medir todos os buckets vencidos
+            List<Object> sizes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                buckets.forEach(bucket -> connection.zSetCommands().zCard(bytes(bucketKey(bucket))));
+                return null;
+            });
+            long pending = 0;
+            for (int i = 0; i < buckets.size(); i++) {
+                long size = sizes.get(i) instanceof Long count ? count : 0;
+                pending += size;
+                if (size > 0) {
+                    sweepBucket(buckets.get(i), now);
+                }
+            }
+            backlog.set(pending);
+        } catch (RuntimeException e) {
+            log.warn("Session expiry sweep failed", e);
+        } finally {
+            sample.stop(sweepTimer);
+        }
+    }
+
+    private void sweepBucket(long bucket, long now) {
+        String bucketKey = bucketKey(bucket);
+        String lockKey = bucketKey + ":lock";
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl);
+        if (!Boolean.TRUE.equals(acquired)) {
+            contendedCounter.increment();
+            return;
+        }
+        try {
+            long deadline = System.nanoTime() + lockTtl.toNanos() / 2;
+            while (System.nanoTime() < deadline) {
+                Set<byte[]> members = redisTemplate.execute((RedisCallback<Set<byte[]>>) connection ->
+                        connection.zSetCommands().zRange(bytes(bucketKey), 0, batchSize - 1));
+                if (members == null || members.isEmpty()) {
+                    return;
+                }
+                reclaim(bucketKey, new ArrayList<>(members), now);
+                if (members.size() < batchSize) {
+                    return;
+                }
+            }
+        } finally {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), token);
+        }
+    }
+
+    private void reclaim(String bucketKey, List<byte[]> sessionIds, long now) {
+        // Confere o sessionExpiresAt atual: a sessão pode ter sido tocada e refilada em outro bucket
+        List<Object> expiries = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            sessionIds.forEach(id -> connection.hashCommands().hGet(sessionKey(id),
+                    bytes(DeltaRedisSessionRepository.EXPIRES_AT)));
+            return null;
+        }, RedisSerializer.byteArray());
+        List<String> expired = new ArrayList<>();
+        for (int i = 0; i < sessionIds.size(); i++) {
+            Object value = expiries.get(i);
+            // Hash ausente: a chave já expirou pelo TTL ou foi removida; só sai do índice
+            long expiresAt = value instanceof byte[] raw ? Long.parseLong(new String(raw, StandardCharsets.UTF_8)) : -1;
+            if (expiresAt >= 0 && expiresAt <= now) {
+                expired.add(new String(sessionKey(sessionIds.get(i)), StandardCharsets.UTF_8));
+            }
+        }
+        // Hash e blobs juntos (blob que escapar ainda tem o TTL de segurança); só depois sai do índice
+        DeltaRedisSessionRepository.deleteWithBlobs(redisTemplate, expired);
+        redisTemplate.execute((RedisCallback<Object>) connection ->
+                connection.zSetCommands().zRem(bytes(bucketKey), sessionIds.toArray(new byte[0][])));
+        reclaimedCounter.increment(expired.size());
+    }
+
+    private byte[] sessionKey(byte[] sessionId) {
+        return bytes(sessionKeyPrefix + new String(sessionId, StandardCharsets.UTF_8));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
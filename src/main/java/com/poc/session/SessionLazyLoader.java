@@ -0,0 +1,120 @@
+package com.poc.session;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads only session metadata and a configured set of hot attributes up front, in one script call
+ * that also returns the size of every other field. Remaining attributes are fetched with HGET on
+ * first read; per-request metrics show how much of the hash was actually pulled.
+ */
+public class SessionLazyLoader {
+
+    // Script de uma chave só (sem CROSSSLOT): HMGET dos campos quentes + tamanho (ou chave do blob) dos demais
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "local values = redis.call('HMGET', KEYS[1], unpack(ARGV)) "
+                    + "local sizes = {} "
+                    + "for _, field in ipairs(redis.call('HKEYS', KEYS[1])) do "
+                    + "  sizes[#sizes + 1] = field "
+                    + "  if string.sub(field, 1, " + DeltaRedisSessionRepository.BLOB_PREFIX.length() + ") == '"
+                    + DeltaRedisSessionRepository.BLOB_PREFIX + "' then "
+                    + "    sizes[#sizes + 1] = redis.call('HGET', KEYS[1], field) "
+                    + "  else "
+                    + "    sizes[#sizes + 1] = redis.call('HSTRLEN', KEYS[1], field) "
+                    + "  end "
+                    + "end "
+                    + "return {values, sizes}",
+            List.class);
+
+    private final String[] eagerFields;
+    private final DistributionSummary presentAttributes;
+    private final DistributionSummary loadedAttributes;
+    private final DistributionSummary loadedBytes;
+    private final DistributionSummary avoidedBytes;
+
+    public SessionLazyLoader(List<String> hotAttributes, MeterRegistry meterRegistry) {
+        List<String> fields = new ArrayList<>(List.of(
+                DeltaRedisSessionRepository.CREATION_TIME,
+                DeltaRedisSessionRepository.LAST_ACCESSED_TIME,
+                DeltaRedisSessionRepository.MAX_INACTIVE_INTERVAL,
+                DeltaRedisSessionRepository.VERSION,
+                DeltaRedisSessionRepository.EXPIRES_AT));
+        hotAttributes.forEach(name -> {
+            fields.add(DeltaRedisSessionRepository.ATTRIBUTE_PREFIX + name);
+            fields.add(DeltaRedisSessionRepository.COUNTER_PREFIX + name);
+        });
+        this.eagerFields = fields.toArray(new String[0]);
+        this.presentAttributes = DistributionSummary.builder("redis.session.lazy.attributes")
+                .description("Attributes present in the session per request")
+                .tag("result", "present")
+                .register(meterRegistry);
+        this.loadedAttributes = DistributionSummary.builder("redis.session.lazy.attributes")
+                .description("Attributes actually fetched from Redis per request")
+                .tag("result", "loaded")
+                .register(meterRegistry);
+        this.loadedBytes = DistributionSummary.builder("redis.session.lazy.bytes")
+                .description("Attribute bytes fetched from Redis per request")
+                .baseUnit("bytes")
+                .tag("result", "loaded")
+                .register(meterRegistry);
+        this.avoidedBytes = DistributionSummary.builder("redis.session.lazy.bytes")
+                .description("Attribute bytes left in Redis because the request never read them")
+                .baseUnit("bytes")
+                .tag("result", "avoided")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the eagerly fetched fields (metadata, hot attributes and blob pointers) and the size
+     * of every attribute field left behind, or {@code null} when the session hash does not exist.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Load load(RedisTemplate<String, Object> redisTemplate, String key) {
+        List<Object> result = (List<Object>) redisTemplate.execute(LOAD_SCRIPT, RedisSerializer.string(),
+                (RedisSerializer) RedisSerializer.byteArray(), List.of(key), (Object[]) eagerFields);
+        if (result == null || result.size() < 2 || !(result.get(1) instanceof List<?> sizes) || sizes.isEmpty()) {
+            return null;
+        }
+        List<?> values = (List<?>) result.get(0);
+        Map<String, byte[]> fields = new HashMap<>();
+        for (int i = 0; i < eagerFields.length && i < values.size(); i++) {
+            if (values.get(i) instanceof byte[] value) {
+                fields.put(eagerFields[i], value);
+            }
+        }
+        Map<String, Long> unloaded = new HashMap<>();
+        for (int i = 0; i + 1 < sizes.size(); i += 2) {
+            String field = new String((byte[]) sizes.get(i), StandardCharsets.UTF_8);
+            Object sizeOrBlobKey = sizes.get(i + 1);
+            if (sizeOrBlobKey instanceof byte[] blobKey) {
+                fields.put(field, blobKey);
+            } else if (sizeOrBlobKey instanceof Long size && !fields.containsKey(field)
+                    && (field.startsWith(DeltaRedisSessionRepository.ATTRIBUTE_PREFIX)
+                    || field.startsWith(DeltaRedisSessionRepository.COUNTER_PREFIX))) {
+                unloaded.put(field, size);
+            }
+        }
+        return new Load(fields, unloaded);
+    }
+
+    void record(int present, int loaded, long bytesLoaded, long bytesAvoided) {
+        presentAttributes.record(present);
+        loadedAttributes.record(loaded);
+        loadedBytes.record(bytesLoaded);
+        avoidedBytes.record(bytesAvoided);
+    }
+
+    record Load(Map<String, byte[]> fields, Map<String, Long> unloaded) {
+    }
+}
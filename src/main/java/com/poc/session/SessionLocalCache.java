@@ -0,0 +1,87 @@
+package com.poc.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process copy of session hashes as raw field bytes plus the sessionVersion they correspond to.
+ * Kept as bytes so every request still gets its own deserialized attribute instances.
+ */
+public class SessionLocalCache {
+
+    private final Cache<String, Entry> entries;
+    private final Counter hitCounter;
+    private final Counter staleCounter;
+    private final Counter missCounter;
+
+    public SessionLocalCache(long maxSize, Duration maxIdle, MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(maxIdle)
+                .build();
+        this.hitCounter = Counter.builder("redis.session.localcache")
+                .description("Session loads answered locally after a version check")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.staleCounter = Counter.builder("redis.session.localcache")
+                .description("Local session copies found outdated (modified by another task)")
+                .tag("result", "stale")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("redis.session.localcache")
+                .description("Session loads with no local copy")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("redis.session.localcache.size", entries, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    Entry get(String sessionId) {
+        return entries.getIfPresent(sessionId);
+    }
+
+    void put(String sessionId, long version, Map<String, byte[]> fields) {
+        entries.put(sessionId, new Entry(version, Map.copyOf(fields)));
+    }
+
+    // Aplica a escrita que esta task acabou de fazer; só vale se ninguém escreveu entre a leitura e o save
+    void applySave(String sessionId, long baseVersion, long newVersion,
+                   Map<String, byte[]> written, List<String> removed, boolean isNew) {
+        Entry current = entries.getIfPresent(sessionId);
+        if (newVersion != baseVersion + 1 || (current == null && !isNew)
+                || (current != null && current.version() != baseVersion)) {
+            entries.invalidate(sessionId);
+            return;
+        }
+        Map<String, byte[]> fields = current != null ? new HashMap<>(current.fields()) : new HashMap<>();
+        fields.putAll(written);
+        removed.forEach(fields::remove);
+        entries.put(sessionId, new Entry(newVersion, Map.copyOf(fields)));
+    }
+
+    void invalidate(String sessionId) {
+        entries.invalidate(sessionId);
+    }
+
+    void recordHit() {
+        hitCounter.increment();
+    }
+
+    void recordStale() {
+        staleCounter.increment();
+    }
+
+    void recordMiss() {
+        missCounter.increment();
+    }
+
+    record Entry(long version, Map<String, byte[]> fields) {
+    }
+}
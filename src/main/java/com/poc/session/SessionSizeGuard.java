@@ -0,0 +1,130 @@
+package com.poc.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Size limits for session attributes. With the delta repository, attributes above the inline
+ * limit, or the largest ones when a session exceeds its inline budget, are moved to separately
+ * keyed blobs that are only fetched when the attribute is read. With the standard repository
+ * there is no offload: writes are only checked. Attributes above the hard limit are rejected in
+ * both modes.
+ */
+public class SessionSizeGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionSizeGuard.class);
+
+    private final String blobKeyPrefix;
+    private final int inlineMaxBytes;
+    private final long maxSessionBytes;
+    private final int maxAttributeBytes;
+    private final DistributionSummary attributeBytes;
+    private final Counter offloadedCounter;
+    private final Counter rejectedCounter;
+    private final Counter budgetExceededCounter;
+    private final Counter blobLoadCounter;
+
+    public SessionSizeGuard(String namespace, int inlineMaxBytes, long maxSessionBytes, int maxAttributeBytes,
+                            MeterRegistry meterRegistry) {
+        this.blobKeyPrefix = namespace + ":blobs:";
+        this.inlineMaxBytes = inlineMaxBytes;
+        this.maxSessionBytes = maxSessionBytes;
+        this.maxAttributeBytes = maxAttributeBytes;
+        this.attributeBytes = DistributionSummary.builder("redis.session.attribute.bytes")
+                .description("Serialized size of session attributes written")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.offloadedCounter = Counter.builder("redis.session.blob.offloaded")
+                .description("Session attributes written as separate blobs instead of inline hash fields")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("redis.session.attribute.rejected")
+                .description("Session attributes rejected for exceeding the hard size limit")
+                .register(meterRegistry);
+        this.budgetExceededCounter = Counter.builder("redis.session.size.exceeded")
+                .description("Session writes left above the inline budget (after offloading, with the delta repository)")
+                .register(meterRegistry);
+        this.blobLoadCounter = Counter.builder("redis.session.blob.loads")
+                .description("Offloaded session attributes fetched on first read")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Removes from {@code written} (attribute name -> serialized bytes) the attributes that must
+     * go to blobs and returns them. {@code untouchedInlineBytes} is what the session already keeps
+     * inline in attributes this save does not rewrite.
+     */
+    Map<String, byte[]> offload(String sessionId, Map<String, byte[]> written, long untouchedInlineBytes) {
+        Map<String, byte[]> offloaded = new LinkedHashMap<>();
+        long inline = untouchedInlineBytes;
+        for (Map.Entry<String, byte[]> attribute : written.entrySet()) {
+            int size = recordAttribute(attribute.getKey(), attribute.getValue().length);
+            if (size > inlineMaxBytes) {
+                offloaded.put(attribute.getKey(), attribute.getValue());
+            } else {
+                inline += size;
+            }
+        }
+        offloaded.keySet().forEach(written::remove);
+        // Estourou o orçamento da sessão: manda para blob os maiores atributos desta escrita
+        while (inline > maxSessionBytes && !written.isEmpty()) {
+            String largest = written.entrySet().stream()
+                    .max(Comparator.comparingInt(attribute -> attribute.getValue().length))
+                    .map(Map.Entry::getKey)
+                    .orElseThrow();
+            byte[] value = written.remove(largest);
+            inline -= value.length;
+            offloaded.put(largest, value);
+        }
+        if (inline > maxSessionBytes) {
+            budgetExceededCounter.increment();
+            log.warn("Session {} keeps {} inline bytes, above the {} byte budget", sessionId, inline, maxSessionBytes);
+        }
+        offloadedCounter.increment(offloaded.size());
+        return offloaded;
+    }
+
+    /**
+     * Standard-repository check, run before the attributes are set: serializes them with the
+     * session serializer, rejects any above the hard limit and flags writes above the session
+     * budget, which the stock repository has no way to offload.
+     */
+    public void check(String sessionId, Map<String, Object> attributes, RedisSerializer<Object> serializer) {
+        long total = 0;
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            byte[] value = serializer.serialize(attribute.getValue());
+            total += recordAttribute(attribute.getKey(), value != null ? value.length : 0);
+        }
+        if (total > maxSessionBytes) {
+            budgetExceededCounter.increment();
+            log.warn("Session {} wrote {} bytes in one request, above the {} byte budget", sessionId, total, maxSessionBytes);
+        }
+    }
+
+    private int recordAttribute(String name, int size) {
+        attributeBytes.record(size);
+        if (size > maxAttributeBytes) {
+            rejectedCounter.increment();
+            throw new IllegalArgumentException("Session attribute '" + name + "' is " + size
+                    + " bytes, above the " + maxAttributeBytes + " byte limit");
+        }
+        return size;
+    }
+
+    String newBlobKey() {
+        // Chave nova a cada escrita: sobrevive a changeSessionId e nunca expõe blob pela metade
+        return blobKeyPrefix + UUID.randomUUID();
+    }
+
+    void recordBlobLoad() {
+        blobLoadCounter.increment();
+    }
+}
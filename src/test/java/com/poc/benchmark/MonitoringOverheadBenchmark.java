@@ -0,0 +1,81 @@
+package com.poc.benchmark;
+
+import com.poc.service.RedisServerlessMonitoringService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures the per-call cost of the monitoring wrapper around a no-op operation: the previous
+ * Timer.builder(...).register(...) per call versus the pre-resolved timers. Runs on an isolated
+ * SimpleMeterRegistry and needs no Redis. Runs outside the application: see "Benchmarks" in the README.
+ */
+public class MonitoringOverheadBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+
+    // Uso: MonitoringOverheadBenchmark [iterations]
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        System.out.println(new MonitoringOverheadBenchmark().run(iterations));
+    }
+
+    public Map<String, Object> run(int iterations) {
+        MeterRegistry legacyRegistry = new SimpleMeterRegistry();
+        // O template só é usado por ping(), que o benchmark não chama
+        RedisServerlessMonitoringService monitoring = new RedisServerlessMonitoringService(
+                null, new SimpleMeterRegistry(), new String[] {"user", "catalog"});
+
+        Runnable legacy = () -> legacyExecute(legacyRegistry, "get", () -> Boolean.TRUE);
+        Runnable current = () -> monitoring.executeWithMonitoring("get", "user:42", () -> Boolean.TRUE);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("iterations", iterations);
+        result.put("before", measure(legacy, iterations));
+        result.put("after", measure(current, iterations));
+        return result;
+    }
+
+    private Map<String, Object> measure(Runnable call, int iterations) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            call.run();
+        }
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            call.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("nanosPerCall", (double) elapsed / iterations);
+        result.put("bytesAllocatedPerCall", allocated < 0 ? null : (double) allocated / iterations);
+        return result;
+    }
+
+    // Caminho anterior de executeWithMonitoring, mantido apenas para comparação
+    private static <T> T legacyExecute(MeterRegistry registry, String operation,
+                                       RedisServerlessMonitoringService.RedisOperation<T> redisOperation) {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return redisOperation.execute();
+        } finally {
+            sample.stop(Timer.builder("redis.operation")
+                    .tag("operation", operation)
+                    .register(registry));
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported()) {
+            return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
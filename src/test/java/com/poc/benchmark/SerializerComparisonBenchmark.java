@@ -0,0 +1,111 @@
+package com.poc.benchmark;
+
+import com.poc.model.ArchitectureStatus;
+import com.poc.model.ComponentStatus;
+import com.poc.model.SessionInfo;
+import com.poc.serializer.BinaryTypeRegistry;
+import com.poc.serializer.CompactBinaryRedisSerializer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Offline JSON vs compact binary comparison (size and encode/decode time) over representative
+ * payloads. Runs outside the application: see "Benchmarks" in the README.
+ */
+public class SerializerComparisonBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+
+    private final RedisSerializer<Object> jsonSerializer = new GenericJackson2JsonRedisSerializer();
+    private final RedisSerializer<Object> binarySerializer;
+
+    public SerializerComparisonBenchmark(BinaryTypeRegistry binaryTypeRegistry) {
+        this.binarySerializer = new CompactBinaryRedisSerializer(binaryTypeRegistry);
+    }
+
+    // Uso: SerializerComparisonBenchmark [iterations]
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        // Mesmos ids do bean binaryTypeRegistry em RedisServerlessConfig
+        BinaryTypeRegistry registry = new BinaryTypeRegistry()
+                .register(32, ComponentStatus.class)
+                .register(33, ArchitectureStatus.class)
+                .register(34, SessionInfo.class);
+        new SerializerComparisonBenchmark(registry).compare(iterations)
+                .forEach((payload, result) -> System.out.println(payload + " " + result));
+    }
+
+    public Map<String, Object> compare(int iterations) {
+        Map<String, Object> results = new LinkedHashMap<>();
+        samplePayloads().forEach((name, payload) -> {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("json", measure(jsonSerializer, payload, iterations));
+            result.put("binary", measure(binarySerializer, payload, iterations));
+            results.put(name, result);
+        });
+        return results;
+    }
+
+    private Map<String, Object> measure(RedisSerializer<Object> serializer, Object payload, int iterations) {
+        byte[] bytes = serializer.serialize(payload);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            serializer.deserialize(serializer.serialize(payload));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes = serializer.serialize(payload);
+        }
+        long encodeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            serializer.deserialize(bytes);
+        }
+        long decodeNanos = System.nanoTime() - start;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("bytes", bytes.length);
+        result.put("encodeNanosAvg", encodeNanos / iterations);
+        result.put("decodeNanosAvg", decodeNanos / iterations);
+        return result;
+    }
+
+    private Map<String, Object> samplePayloads() {
+        ComponentStatus redis = ComponentStatus.builder()
+                .name("Redis Cache")
+                .status("healthy")
+                .details("Connection successful | Response time: 2ms")
+                .responseTime(2L)
+                .build();
+        ComponentStatus container = ComponentStatus.builder()
+                .name("ECS Container")
+                .status("healthy")
+                .details("Container: ip-10-0-1-23 | Java: 17.0.9 | Spring: 3.1.5")
+                .responseTime(1L)
+                .build();
+
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        payloads.put("string", "Redis Serverless connection working!");
+        payloads.put("integer", 42);
+        payloads.put("componentStatus", redis);
+        payloads.put("sessionInfo", SessionInfo.builder()
+                .sessionId("3f1c2a9e-8d7b-4c6a-9f0e-1b2c3d4e5f60")
+                .userId("user-3f1c2a9e")
+                .counter(17)
+                .creationTime(System.currentTimeMillis())
+                .lastAccessedTime(System.currentTimeMillis())
+                .containerInfo("ip-10-0-1-23")
+                .build());
+        payloads.put("architectureStatus", ArchitectureStatus.builder()
+                .containerStatus(container)
+                .redisStatus(redis)
+                .sessionStatus(redis)
+                .cloudFrontStatus(container)
+                .build());
+        return payloads;
+    }
+}
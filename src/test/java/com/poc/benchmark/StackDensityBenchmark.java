@@ -0,0 +1,170 @@
+package com.poc.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives N concurrent HTTP/1.1 connections at a running instance and samples its actuator
+ * metrics meanwhile: throughput, latency, live threads and heap/non-heap use under load. Run it
+ * once per stack (servlet, servlet + virtual-threads, reactive) with the same arguments to
+ * compare connection density. Runs outside the application: see "Benchmarks" in the README.
+ */
+public class StackDensityBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long SAMPLE_INTERVAL_MILLIS = 250;
+
+    private final URI baseUri;
+    private final ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+
+    public StackDensityBenchmark(URI baseUri) {
+        this.baseUri = baseUri;
+        // Cliente em virtual threads: as conexões abertas são as do servidor medido, não pools do cliente
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+    }
+
+    // Uso: StackDensityBenchmark [baseUrl] [path] [requests] [concurrency]
+    public static void main(String[] args) throws Exception {
+        URI baseUri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080");
+        String path = args.length > 1 ? args[1] : "/api/redis/test";
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 500;
+        StackDensityBenchmark benchmark = new StackDensityBenchmark(baseUri);
+        try {
+            System.out.println(benchmark.run(path, requests, concurrency));
+        } finally {
+            benchmark.clientExecutor.shutdownNow();
+        }
+    }
+
+    public Map<String, Object> run(String path, int requests, int concurrency) throws Exception {
+        URI target = baseUri.resolve(path);
+        // Aquecimento: conexões, JIT e pools do servidor já criados antes da medição
+        runBatch(target, Math.min(requests, 2_000), concurrency, new long[Math.min(requests, 2_000)]);
+
+        Map<String, Object> idle = serverSample();
+        ServerSampler sampler = new ServerSampler();
+        Thread samplerThread = Thread.ofPlatform().daemon().name("density-sampler").start(sampler);
+        long[] latencies = new long[requests];
+        long start = System.nanoTime();
+        int failures = runBatch(target, requests, concurrency, latencies);
+        long elapsed = System.nanoTime() - start;
+        sampler.stop();
+        samplerThread.join();
+        Arrays.sort(latencies);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("target", target);
+        result.put("requests", requests);
+        result.put("concurrentConnections", concurrency);
+        result.put("throughputPerSecond", requests / (elapsed / 1_000_000_000.0));
+        result.put("p50Millis", latencies[(int) (requests * 0.50)] / 1_000_000.0);
+        result.put("p99Millis", latencies[Math.min(requests - 1, (int) (requests * 0.99))] / 1_000_000.0);
+        result.put("maxMillis", latencies[requests - 1] / 1_000_000.0);
+        result.put("failures", failures);
+        result.put("idle", idle);
+        result.put("peakLiveThreads", sampler.peakThreads);
+        result.put("peakHeapUsedMb", sampler.peakHeapUsed / (1024 * 1024));
+        result.put("peakNonHeapUsedMb", sampler.peakNonHeapUsed / (1024 * 1024));
+        result.put("connectionsPerLiveThread", (double) concurrency / Math.max(1, sampler.peakThreads));
+        // Aproximado: GC durante a carga reduz o pico observado
+        long heapGrowth = Math.max(0, sampler.peakHeapUsed - (long) idle.get("heapUsedBytes"));
+        result.put("heapKbPerConnection", heapGrowth / 1024 / concurrency);
+        return result;
+    }
+
+    private int runBatch(URI target, int requests, int concurrency, long[] latencies) throws InterruptedException {
+        // Cada permissão é uma conexão de cliente: só emite o próximo request quando o anterior respondeu
+        Semaphore clients = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+        AtomicInteger failures = new AtomicInteger();
+        HttpRequest request = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(30)).GET().build();
+        for (int i = 0; i < requests; i++) {
+            clients.acquire();
+            int index = i;
+            long issuedAt = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null || response.statusCode() >= 500) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[index] = System.nanoTime() - issuedAt;
+                        clients.release();
+                        done.countDown();
+                    });
+        }
+        if (!done.await(5, TimeUnit.MINUTES)) {
+            failures.addAndGet((int) done.getCount());
+        }
+        return failures.get();
+    }
+
+    private Map<String, Object> serverSample() throws IOException, InterruptedException {
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("liveThreads", (long) metric("jvm.threads.live", null));
+        sample.put("heapUsedBytes", (long) metric("jvm.memory.used", "area:heap"));
+        sample.put("nonHeapUsedBytes", (long) metric("jvm.memory.used", "area:nonheap"));
+        return sample;
+    }
+
+    private double metric(String name, String tag) throws IOException, InterruptedException {
+        URI uri = baseUri.resolve("/actuator/metrics/" + name + (tag != null ? "?tag=" + tag : ""));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + uri + " returned " + response.statusCode());
+        }
+        JsonNode measurements = MAPPER.readTree(response.body()).path("measurements");
+        return measurements.isEmpty() ? 0 : measurements.get(0).path("value").asDouble();
+    }
+
+    private final class ServerSampler implements Runnable {
+
+        private volatile boolean running = true;
+        private long peakThreads;
+        private long peakHeapUsed;
+        private long peakNonHeapUsed;
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    peakThreads = Math.max(peakThreads, (long) metric("jvm.threads.live", null));
+                    peakHeapUsed = Math.max(peakHeapUsed, (long) metric("jvm.memory.used", "area:heap"));
+                    peakNonHeapUsed = Math.max(peakNonHeapUsed, (long) metric("jvm.memory.used", "area:nonheap"));
+                    Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (IOException e) {
+                    // Amostra perdida sob carga: segue para a próxima
+                }
+            }
+        }
+
+        private void stop() {
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.poc.benchmark;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the current request thread model (a fixed pool sized like Tomcat's) with one virtual
+ * thread per task, for blocking RedisTemplate calls at a given client concurrency. Latency is
+ * measured from the moment a simulated client issues the request, so pool queueing is included.
+ * Runs outside the application against the Redis given on the command line: see "Benchmarks" in the README.
+ */
+public class ThreadModelBenchmark {
+
+    private static final String KEY = "benchmark:thread-model";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final int platformThreads;
+
+    public ThreadModelBenchmark(RedisTemplate<String, Object> redisTemplate, int platformThreads) {
+        this.redisTemplate = redisTemplate;
+        this.platformThreads = platformThreads;
+    }
+
+    // Uso: ThreadModelBenchmark [host] [port] [ssl] [requests] [concurrency] [callsPerRequest] [platformThreads]
+    public static void main(String[] args) throws InterruptedException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 6379;
+        boolean ssl = args.length > 2 && Boolean.parseBoolean(args[2]);
+        int requests = args.length > 3 ? Integer.parseInt(args[3]) : 20_000;
+        int concurrency = args.length > 4 ? Integer.parseInt(args[4]) : 1_000;
+        int callsPerRequest = args.length > 5 ? Integer.parseInt(args[5]) : 3;
+        // Padrão do server.tomcat.threads.max
+        int platformThreads = args.length > 6 ? Integer.parseInt(args[6]) : 200;
+
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder client = LettuceClientConfiguration.builder();
+        if (ssl) {
+            client.useSsl();
+        }
+        LettuceConnectionFactory connectionFactory =
+                new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port), client.build());
+        connectionFactory.afterPropertiesSet();
+        try {
+            RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+            redisTemplate.setConnectionFactory(connectionFactory);
+            redisTemplate.setKeySerializer(new StringRedisSerializer());
+            redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+            redisTemplate.afterPropertiesSet();
+            System.out.println(new ThreadModelBenchmark(redisTemplate, platformThreads)
+                    .run(requests, concurrency, callsPerRequest));
+        } finally {
+            connectionFactory.destroy();
+        }
+    }
+
+    public Map<String, Object> run(int requests, int concurrency, int callsPerRequest) throws InterruptedException {
+        redisTemplate.opsForValue().set(KEY, "value");
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", requests);
+        result.put("concurrency", concurrency);
+        result.put("redisCallsPerRequest", callsPerRequest);
+        result.put("platformThreads", platformThreads);
+        try (ExecutorService platform = Executors.newFixedThreadPool(platformThreads)) {
+            result.put("platformPool", measure(platform, requests, concurrency, callsPerRequest));
+        }
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            result.put("virtualThreads", measure(virtual, requests, concurrency, callsPerRequest));
+        }
+        return result;
+    }
+
+    private Map<String, Object> measure(ExecutorService executor, int requests, int concurrency,
+                                        int callsPerRequest) throws InterruptedException {
+        // Aquecimento curto para não medir o primeiro connect/JIT
+        runBatch(executor, Math.min(requests, 1_000), concurrency, callsPerRequest, new long[Math.min(requests, 1_000)]);
+        long[] latencies = new long[requests];
+        long start = System.nanoTime();
+        int failures = runBatch(executor, requests, concurrency, callsPerRequest, latencies);
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("throughputPerSecond", requests / (elapsed / 1_000_000_000.0));
+        result.put("p50Millis", latencies[(int) (requests * 0.50)] / 1_000_000.0);
+        result.put("p99Millis", latencies[Math.min(requests - 1, (int) (requests * 0.99))] / 1_000_000.0);
+        result.put("maxMillis", latencies[requests - 1] / 1_000_000.0);
+        result.put("failures", failures);
+        return result;
+    }
+
+    private int runBatch(ExecutorService executor, int requests, int concurrency, int callsPerRequest,
+                         long[] latencies) throws InterruptedException {
+        // Cada permissão é um cliente: só emite o próximo request quando o anterior respondeu
+        Semaphore clients = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < requests; i++) {
+            clients.acquire();
+            int index = i;
+            long issuedAt = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    for (int call = 0; call < callsPerRequest; call++) {
+                        redisTemplate.opsForValue().get(KEY);
+                    }
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    latencies[index] = System.nanoTime() - issuedAt;
+                    clients.release();
+                    done.countDown();
+                }
+            });
+        }
+        if (!done.await(5, TimeUnit.MINUTES)) {
+            failures.addAndGet((int) done.getCount());
+        }
+        return failures.get();
+    }
+}
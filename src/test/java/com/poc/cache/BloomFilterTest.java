@@ -0,0 +1,78 @@
+package com.poc.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void sizingFollowsTheStandardFormulas() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+
+        // m = -n ln p / (ln 2)^2 ≈ 958 506 bits, arredondado para bytes inteiros; k = m/n ln 2 ≈ 7
+        assertThat(filter.bitSize()).isEqualTo(958_512);
+        assertThat(filter.bitSize() % 8).isZero();
+        assertThat(filter.hashFunctions()).isEqualTo(7);
+    }
+
+    @Test
+    void addedKeysAreNeverReportedAbsent() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user:" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user:" + i)).as("user:%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTargetAtCapacity() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user:" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("missing:" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+        assertThat(filter.estimatedFalsePositiveRate()).isBetween(0.005, 0.02);
+    }
+
+    @Test
+    void mergeReadsTheRedisBitmapLayout() {
+        BloomFilter writer = new BloomFilter(1_000, 0.01);
+        // Como SETBIT: offset 0 é o bit mais significativo do byte 0
+        byte[] bitmap = new byte[(int) (writer.bitSize() / 8)];
+        for (long offset : writer.offsets("catalog:42")) {
+            bitmap[(int) (offset >>> 3)] |= (byte) (0x80 >>> (offset & 7));
+        }
+
+        BloomFilter reader = new BloomFilter(1_000, 0.01);
+        reader.merge(bitmap);
+
+        assertThat(reader.mightContain("catalog:42")).isTrue();
+        assertThat(reader.mightContain("catalog:43")).isFalse();
+    }
+
+    @Test
+    void mergeIgnoresBytesBeyondTheFilter() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        byte[] oversized = new byte[(int) (filter.bitSize() / 8) + 16];
+        Arrays.fill(oversized, (int) (filter.bitSize() / 8), oversized.length, (byte) 0xFF);
+
+        filter.merge(oversized);
+
+        assertThat(filter.estimatedFalsePositiveRate()).isZero();
+    }
+}
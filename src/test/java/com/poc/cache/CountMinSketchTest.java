@@ -0,0 +1,62 @@
+package com.poc.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinSketchTest {
+
+    @Test
+    void addReturnsTheCurrentEstimate() {
+        CountMinSketch sketch = new CountMinSketch(1024);
+
+        assertThat(sketch.add("product:1", 10)).isEqualTo(10);
+        assertThat(sketch.add("product:1", 5)).isEqualTo(15);
+        assertThat(sketch.estimate("product:1")).isEqualTo(15);
+        assertThat(sketch.estimate("product:2")).isZero();
+    }
+
+    @Test
+    void neverUnderestimatesUnderCollisions() {
+        // Largura pequena de propósito para forçar colisões em todas as linhas
+        CountMinSketch sketch = new CountMinSketch(64);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            String key = "key:" + random.nextInt(2_000);
+            sketch.add(key, 1);
+            exact.merge(key, 1L, Long::sum);
+        }
+
+        exact.forEach((key, count) -> assertThat(sketch.estimate(key)).as(key).isGreaterThanOrEqualTo(count));
+    }
+
+    @Test
+    void heavyHitterStandsOutFromTheBackground() {
+        CountMinSketch sketch = new CountMinSketch(4096);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("cold:" + i, 1);
+        }
+        sketch.add("hot", 5_000);
+
+        // Erro esperado ≈ e/largura * total ≈ 10 leituras; a chave quente fica muito acima
+        assertThat(sketch.estimate("hot")).isBetween(5_000L, 5_100L);
+        assertThat(sketch.estimate("cold:1")).isLessThan(100);
+    }
+
+    @Test
+    void clearResetsAllCounters() {
+        CountMinSketch sketch = new CountMinSketch(256);
+        sketch.add("a", 3);
+        sketch.add("b", 7);
+
+        sketch.clear();
+
+        assertThat(sketch.estimate("a")).isZero();
+        assertThat(sketch.estimate("b")).isZero();
+    }
+}
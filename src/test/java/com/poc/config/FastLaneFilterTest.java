@@ -0,0 +1,38 @@
+package com.poc.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sobe o contexto servlet completo contra o Redis de redis.endpoint (padrão localhost:6379)
+@SpringBootTest
+@AutoConfigureMockMvc
+class FastLaneFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void probesIssueNoRedisCommandsAndCreateNoSession() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(header().doesNotExist("Set-Cookie"));
+        mockMvc.perform(get("/api/ping"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Set-Cookie"));
+
+        assertThat(meterRegistry.get("http.fastlane.requests").tag("path", "/api/ping").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("http.fastlane.redis.commands").counters()).hasSize(1);
+        assertThat(meterRegistry.get("http.fastlane.redis.commands").counter().count()).isZero();
+    }
+}
@@ -0,0 +1,66 @@
+package com.poc.config;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.session.ReactiveSessionRepository;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.data.redis.ReactiveRedisSessionRepository;
+import org.springframework.session.data.redis.RedisSessionRepository;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sobe cada stack contra o Redis de redis.endpoint (padrão localhost:6379): só um repositório de sessão por stack
+class SessionStackContextTest {
+
+    @Nested
+    @SpringBootTest
+    class Servlet {
+
+        @Autowired
+        private ApplicationContext context;
+
+        @Test
+        void registersOnlyTheServletSessionRepository() {
+            assertThat(context.getBean(SessionRepository.class)).isInstanceOf(RedisSessionRepository.class);
+            assertThat(context.getBeanNamesForType(ReactiveSessionRepository.class)).isEmpty();
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "spring.main.web-application-type=reactive")
+    class Reactive {
+
+        @Autowired
+        private ApplicationContext context;
+
+        @Autowired
+        private WebTestClient webTestClient;
+
+        @Test
+        void registersOnlyTheReactiveSessionRepository() {
+            assertThat(context.getBean(ReactiveSessionRepository.class)).isInstanceOf(ReactiveRedisSessionRepository.class);
+            assertThat(context.getBeanNamesForType(SessionRepository.class)).isEmpty();
+        }
+
+        @Test
+        void runsOnNettyNotTomcat() {
+            assertThat(((ReactiveWebServerApplicationContext) context).getWebServer()).isInstanceOf(NettyWebServer.class);
+        }
+
+        @Test
+        void servesSessionRequests() {
+            webTestClient.get().uri("/api/session/test")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectCookie().exists("JSESSIONID")
+                    .expectBody().jsonPath("$.counter").isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.poc.serializer;
+
+import com.poc.model.ComponentStatus;
+import com.poc.model.SessionInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactBinaryRedisSerializerTest {
+
+    private final BinaryTypeRegistry registry = new BinaryTypeRegistry()
+            .register(32, ComponentStatus.class)
+            .register(34, SessionInfo.class);
+    private final CompactBinaryRedisSerializer serializer = new CompactBinaryRedisSerializer(registry);
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+
+    @Test
+    void primitivesAreWrittenRawBehindTheHeader() {
+        byte[] bytes = serializer.serialize(42);
+
+        assertThat(bytes).hasSize(2 + Integer.BYTES);
+        assertThat(bytes[0]).isEqualTo(CompactBinaryRedisSerializer.MAGIC);
+        assertThat(bytes[1]).isEqualTo((byte) BinaryTypeRegistry.INTEGER);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(42);
+        assertThat(serializer.deserialize(serializer.serialize("olá"))).isEqualTo("olá");
+        assertThat(serializer.deserialize(serializer.serialize(7L))).isEqualTo(7L);
+        assertThat(serializer.deserialize(serializer.serialize(true))).isEqualTo(true);
+        assertThat(serializer.deserialize(serializer.serialize(1.5d))).isEqualTo(1.5d);
+    }
+
+    @Test
+    void registeredObjectsRoundTripAsSmile() {
+        ComponentStatus status = ComponentStatus.builder()
+                .name("Redis Cache").status("healthy").details("ok").responseTime(3).build();
+
+        Object decoded = serializer.deserialize(serializer.serialize(status));
+
+        assertThat(decoded).isInstanceOf(ComponentStatus.class);
+        assertThat((ComponentStatus) decoded)
+                .extracting(ComponentStatus::getName, ComponentStatus::getStatus, ComponentStatus::getResponseTime)
+                .containsExactly("Redis Cache", "healthy", 3L);
+    }
+
+    @Test
+    void legacyJsonValuesStayReadable() {
+        byte[] legacy = json.serialize(SessionInfo.builder().sessionId("abc").counter(5).build());
+
+        Object decoded = serializer.deserialize(legacy);
+
+        assertThat(decoded).isInstanceOf(SessionInfo.class);
+        assertThat(((SessionInfo) decoded).getCounter()).isEqualTo(5);
+    }
+
+    @Test
+    void unregisteredTypesAreWrittenWithTheLegacySerializer() {
+        List<String> value = new ArrayList<>(List.of("a", "b"));
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertThat(bytes[0]).isNotEqualTo(CompactBinaryRedisSerializer.MAGIC);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(value);
+    }
+
+    @Test
+    void unknownTypeIdIsRejected() {
+        byte[] bytes = {CompactBinaryRedisSerializer.MAGIC, (byte) 99, 0};
+
+        assertThatThrownBy(() -> serializer.deserialize(bytes))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("99");
+    }
+
+    @Test
+    void emptyValuesMapToNull() {
+        assertThat(serializer.serialize(null)).isEmpty();
+        assertThat(serializer.deserialize(new byte[0])).isNull();
+    }
+}
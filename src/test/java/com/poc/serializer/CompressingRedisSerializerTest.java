@@ -0,0 +1,113 @@
+package com.poc.serializer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressingRedisSerializerTest {
+
+    private static final int THRESHOLD = 256;
+    private static final int MAX_RAW = 64 * 1024;
+
+    private final RedisSerializer<Object> delegate = RedisSerializer.java();
+
+    @Test
+    void smallValuesAreWrittenRaw() {
+        CompressingRedisSerializer serializer = serializer(true, null);
+
+        byte[] bytes = serializer.serialize("short");
+
+        assertThat(bytes).isEqualTo(delegate.serialize("short"));
+        assertThat(serializer.deserialize(bytes)).isEqualTo("short");
+    }
+
+    @Test
+    void largeValuesAreFramedAndRoundTrip() {
+        CompressingRedisSerializer serializer = serializer(true, null);
+        String value = "session-attribute ".repeat(200);
+        int rawLength = delegate.serialize(value).length;
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertThat(bytes[0]).isEqualTo(CompressingRedisSerializer.HEADER);
+        assertThat(bytes[1]).isEqualTo(CompressingRedisSerializer.CODEC_ZLIB);
+        assertThat(ByteBuffer.wrap(bytes, 2, Integer.BYTES).getInt()).isEqualTo(rawLength);
+        assertThat(bytes.length).isLessThan(rawLength);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(value);
+    }
+
+    @Test
+    void compressedValuesAreDecodedWithCompressionOff() {
+        byte[] compressed = serializer(true, null).serialize("x".repeat(4096));
+        CompressingRedisSerializer readOnly = serializer(false, null);
+
+        assertThat(readOnly.deserialize(compressed)).isEqualTo("x".repeat(4096));
+        assertThat(readOnly.serialize("x".repeat(4096))).isEqualTo(delegate.serialize("x".repeat(4096)));
+    }
+
+    @Test
+    void incompressibleAndOversizedValuesStayRaw() {
+        CompressingRedisSerializer serializer = serializer(true, null);
+        byte[] noise = new byte[4096];
+        new Random(7).nextBytes(noise);
+        String oversized = "y".repeat(MAX_RAW);
+
+        assertThat(serializer.serialize(noise)[0]).isNotEqualTo(CompressingRedisSerializer.HEADER);
+        assertThat(serializer.serialize(oversized)[0]).isNotEqualTo(CompressingRedisSerializer.HEADER);
+    }
+
+    @Test
+    void declaredLengthAboveTheLimitIsRejectedBeforeAllocating() {
+        byte[] bytes = serializer(true, null).serialize("z".repeat(4096));
+        ByteBuffer.wrap(bytes, 2, Integer.BYTES).putInt(Integer.MAX_VALUE);
+
+        assertThatThrownBy(() -> serializer(true, null).deserialize(bytes))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("limit");
+    }
+
+    @Test
+    void declaredLengthThatDoesNotMatchTheStreamIsRejected() {
+        byte[] bytes = serializer(true, null).serialize("z".repeat(4096));
+        int rawLength = ByteBuffer.wrap(bytes, 2, Integer.BYTES).getInt();
+        ByteBuffer.wrap(bytes, 2, Integer.BYTES).putInt(rawLength + 10);
+
+        assertThatThrownBy(() -> serializer(true, null).deserialize(bytes))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void truncatedStreamIsRejected() {
+        byte[] bytes = serializer(true, null).serialize("session-attribute ".repeat(200));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+
+        assertThatThrownBy(() -> serializer(true, null).deserialize(truncated))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void dictionaryMustMatchOnRead() {
+        byte[] dictionary = "{\"@class\":\"com.poc.model.SessionInfo\",\"sessionId\":".getBytes(StandardCharsets.UTF_8);
+        String value = "{\"@class\":\"com.poc.model.SessionInfo\",\"sessionId\":\"abc\"}".repeat(10);
+        byte[] bytes = serializer(true, dictionary).serialize(value);
+
+        assertThat(serializer(false, dictionary).deserialize(bytes)).isEqualTo(value);
+        assertThatThrownBy(() -> serializer(false, null).deserialize(bytes))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("dictionary");
+    }
+
+    private CompressingRedisSerializer serializer(boolean compressOnWrite, byte[] dictionary) {
+        return new CompressingRedisSerializer(delegate, compressOnWrite, THRESHOLD, 1, MAX_RAW, dictionary,
+                new SimpleMeterRegistry(), "test");
+    }
+}
@@ -0,0 +1,49 @@
+package com.poc.service;
+
+import com.poc.model.ArchitectureStatus;
+import com.poc.model.ComponentStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArchitectureStatusSignatureTest {
+
+    @Test
+    void latencyIsPublishedAsTheUpperBoundOfItsBucket() {
+        assertThat(ArchitectureTestService.latencyBucket(0)).isEqualTo(5);
+        assertThat(ArchitectureTestService.latencyBucket(5)).isEqualTo(5);
+        assertThat(ArchitectureTestService.latencyBucket(6)).isEqualTo(10);
+        assertThat(ArchitectureTestService.latencyBucket(120)).isEqualTo(250);
+        assertThat(ArchitectureTestService.latencyBucket(60_000)).isEqualTo(1000);
+    }
+
+    @Test
+    void jitterInsideABucketKeepsTheSignature() {
+        // 2ms e 4ms caem na mesma faixa: mesma versão, mesmo ETag
+        assertThat(ArchitectureTestService.signature(status("healthy", 2)))
+                .isEqualTo(ArchitectureTestService.signature(status("healthy", 4)));
+    }
+
+    @Test
+    void statusOrBucketChangeBumpsTheSignature() {
+        String baseline = ArchitectureTestService.signature(status("healthy", 2));
+
+        assertThat(ArchitectureTestService.signature(status("warning", 2))).isNotEqualTo(baseline);
+        assertThat(ArchitectureTestService.signature(status("healthy", 40))).isNotEqualTo(baseline);
+    }
+
+    private static ArchitectureStatus status(String redisStatus, long latencyMillis) {
+        long bucket = ArchitectureTestService.latencyBucket(latencyMillis);
+        ComponentStatus fixed = ComponentStatus.builder()
+                .name("ECS Container").status("healthy").details("Container: test").responseTime(1L).build();
+        ComponentStatus redis = ComponentStatus.builder()
+                .name("Redis Cache").status(redisStatus).details("Connection successful | Response time: <=" + bucket + "ms")
+                .responseTime(bucket).build();
+        return ArchitectureStatus.builder()
+                .containerStatus(fixed)
+                .redisStatus(redis)
+                .sessionStatus(fixed)
+                .cloudFrontStatus(fixed)
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.poc.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerlessCacheServiceEarlyRefreshTest {
+
+    private static final long DELTA_MILLIS = 200;
+
+    @Test
+    void neverRefreshesWhenTheDrawIsZero() {
+        // -ln(1) = 0: só um ttl já zerado dispara
+        assertThat(ServerlessCacheService.refreshEarly(1, DELTA_MILLIS, 1.0, 0.0)).isFalse();
+        assertThat(ServerlessCacheService.refreshEarly(0, DELTA_MILLIS, 1.0, 0.0)).isTrue();
+    }
+
+    @Test
+    void thresholdIsDeltaTimesBetaTimesMinusLogOfTheDraw() {
+        double random = 1 - Math.exp(-1); // -ln(1 - random) = 1
+
+        assertThat(ServerlessCacheService.refreshEarly(200, DELTA_MILLIS, 1.0, random)).isTrue();
+        assertThat(ServerlessCacheService.refreshEarly(201, DELTA_MILLIS, 1.0, random)).isFalse();
+        assertThat(ServerlessCacheService.refreshEarly(400, DELTA_MILLIS, 2.0, random)).isTrue();
+        assertThat(ServerlessCacheService.refreshEarly(401, DELTA_MILLIS, 2.0, random)).isFalse();
+    }
+
+    @Test
+    void probabilityGrowsAsExpiryApproaches() {
+        // P(refresh) = exp(-ttl / (delta * beta))
+        assertThat(refreshRate(10 * DELTA_MILLIS)).isLessThan(0.001);
+        assertThat(refreshRate(DELTA_MILLIS)).isBetween(0.33, 0.41);
+        assertThat(refreshRate(DELTA_MILLIS / 10)).isBetween(0.88, 0.93);
+    }
+
+    private static double refreshRate(long ttlMillis) {
+        Random random = new Random(42);
+        int draws = 100_000;
+        int refreshes = 0;
+        for (int i = 0; i < draws; i++) {
+            if (ServerlessCacheService.refreshEarly(ttlMillis, DELTA_MILLIS, 1.0, random.nextDouble())) {
+                refreshes++;
+            }
+        }
+        return (double) refreshes / draws;
+    }
+}
@@ -0,0 +1,93 @@
+package com.poc.session;
+
+import com.poc.service.RedisServerlessMonitoringService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeltaRedisSessionRepositoryPipelineTest {
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, Object> redisTemplate;
+    private DeltaRedisSessionRepository repository;
+
+    // Roda contra o Redis de redis.endpoint (padrão localhost:6379)
+    @BeforeEach
+    void connect() {
+        connectionFactory = new LettuceConnectionFactory(System.getProperty("redis.endpoint", "localhost"), 6379);
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        repository = new DeltaRedisSessionRepository(redisTemplate, RedisSerializer.java(),
+                new RedisServerlessMonitoringService(redisTemplate, meterRegistry, new String[0]), meterRegistry,
+                "test:delta", Duration.ofMinutes(30), Duration.ZERO, null, null, null, null);
+    }
+
+    @AfterEach
+    void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void tailIsReadFromTheEndWhateverPrecedesIt() {
+        // HDEL (Long) e ZADD (Boolean) antes; HMSET/SET não aparecem
+        List<Object> results = Arrays.asList(1L, Boolean.TRUE, 5L, 12L, 3L, Boolean.TRUE);
+
+        assertThat(DeltaRedisSessionRepository.pipelineTail(results, 2)).containsExactly(5L, 12L, 3L);
+    }
+
+    @Test
+    void versionOnlyWhenThereAreNoCounters() {
+        assertThat(DeltaRedisSessionRepository.pipelineTail(List.of(7L, Boolean.TRUE), 0)).containsExactly(7L);
+    }
+
+    @Test
+    void shortOrUnexpectedRepliesComeBackAsNull() {
+        assertThat(DeltaRedisSessionRepository.pipelineTail(List.of(Boolean.TRUE), 1)).containsExactly(null, null);
+        assertThat(DeltaRedisSessionRepository.pipelineTail(List.of("OK", 4L, Boolean.TRUE), 1))
+                .containsExactly(null, 4L);
+    }
+
+    @Test
+    void countersPickUpTheServerValueFromThePipeline() {
+        DeltaRedisSessionRepository.DeltaSession session = repository.createSession();
+        session.setAttribute("userId", "user-1");
+        SessionCounter first = new SessionCounter(0);
+        first.increment(1);
+        session.setAttribute("counter", first);
+        repository.save(session);
+        String key = "test:delta:sessions:" + session.getId();
+        try {
+            // Outra task incrementa entre os saves: o HINCRBY seguinte devolve o total do servidor
+            redisTemplate.opsForHash().increment(key, DeltaRedisSessionRepository.COUNTER_PREFIX + "counter", 10);
+            DeltaRedisSessionRepository.DeltaSession loaded = repository.findById(session.getId());
+            SessionCounter counter = loaded.getAttribute("counter");
+            counter.increment(1);
+            loaded.setAttribute("counter", counter);
+            repository.save(loaded);
+
+            assertThat(counter.value()).isEqualTo(12);
+            assertThat(counter.pendingDelta()).isZero();
+            assertThat(repository.persistedVersion(session.getId())).isEqualTo(2);
+            assertThat(repository.findById(session.getId()).<SessionCounter>getAttribute("counter").value())
+                    .isEqualTo(12);
+        } finally {
+            repository.deleteById(session.getId());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.poc.session;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionCounterTest {
+
+    @Test
+    void standardModeKeepsAPlainInteger() {
+        MockHttpSession session = new MockHttpSession();
+
+        assertThat(SessionCounter.increment(session, "counter", false)).isEqualTo(1);
+        assertThat(SessionCounter.increment(session, "counter", false)).isEqualTo(2);
+
+        // Tasks antigas fazem (Integer) session.getAttribute("counter")
+        assertThat(session.getAttribute("counter")).isEqualTo(2).isInstanceOf(Integer.class);
+    }
+
+    @Test
+    void deltaModeWritesASessionCounterWithThePendingDelta() {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("counter", 41);
+
+        assertThat(SessionCounter.increment(session, "counter", true)).isEqualTo(42);
+
+        SessionCounter counter = (SessionCounter) session.getAttribute("counter");
+        assertThat(counter.value()).isEqualTo(42);
+        assertThat(counter.pendingDelta()).isEqualTo(1);
+    }
+
+    @Test
+    void rollingBackToStandardModeReadsTheDeltaFormat() {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("counter", new SessionCounter(7));
+
+        assertThat(SessionCounter.increment(session, "counter", false)).isEqualTo(8);
+        assertThat(session.getAttribute("counter")).isEqualTo(8);
+    }
+
+    @Test
+    void webSessionAttributesAlwaysUseInteger() {
+        Map<String, Object> attributes = new HashMap<>();
+
+        SessionCounter.increment(attributes, "counter");
+        SessionCounter.increment(attributes, "counter");
+
+        assertThat(attributes.get("counter")).isEqualTo(2).isInstanceOf(Integer.class);
+    }
+}
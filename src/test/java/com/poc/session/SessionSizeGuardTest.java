@@ -0,0 +1,51 @@
+package com.poc.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionSizeGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SessionSizeGuard guard = new SessionSizeGuard("test", 64, 256, 1024, meterRegistry);
+
+    @Test
+    void standardCheckRejectsAttributesAboveTheHardLimit() {
+        Map<String, Object> attributes = Map.of("blob", "x".repeat(2048));
+
+        assertThatThrownBy(() -> guard.check("s1", attributes, RedisSerializer.java()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'blob'");
+        assertThat(meterRegistry.get("redis.session.attribute.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void standardCheckOnlyFlagsWritesAboveTheSessionBudget() {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("a", "x".repeat(200));
+        attributes.put("b", "y".repeat(200));
+
+        guard.check("s1", attributes, RedisSerializer.java());
+
+        assertThat(meterRegistry.get("redis.session.size.exceeded").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("redis.session.attribute.bytes").summary().count()).isEqualTo(2);
+    }
+
+    @Test
+    void deltaOffloadMovesLargeAttributesToBlobs() {
+        Map<String, byte[]> written = new LinkedHashMap<>();
+        written.put("small", new byte[16]);
+        written.put("large", new byte[128]);
+
+        Map<String, byte[]> offloaded = guard.offload("s1", written, 0);
+
+        assertThat(offloaded).containsOnlyKeys("large");
+        assertThat(written).containsOnlyKeys("small");
+    }
+}